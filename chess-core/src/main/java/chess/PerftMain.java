@@ -0,0 +1,139 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import chess.model.Board;
+import chess.model.Fen;
+import chess.model.Perft;
+import chess.model.PieceColor;
+
+/**
+ * Headless perft runner for checking and benchmarking move generation.
+ *
+ * <pre>
+ *   PerftMain                       run the regression suite
+ *   PerftMain suite [maxDepth]      same, capping every position at maxDepth
+ *   PerftMain perft depth [fen]     count nodes from fen (start position by default)
+ *   PerftMain divide depth [fen]    per-root-move counts
+ * </pre>
+ *
+ * The suite exits with status 1 when any count differs from the published value.
+ */
+public class PerftMain {
+
+    /** Reference positions with their known node counts for depth 1, 2, ... */
+    private static final Object[][] SUITE = {
+            { "Start position", Fen.START,
+                    new long[] { 20, 400, 8902, 197281, 4865609 } },
+            { "Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[] { 48, 2039, 97862, 4085603 } },
+            { "Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[] { 14, 191, 2812, 43238, 674624 } },
+            { "Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[] { 6, 264, 9467, 422333 } },
+            { "Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[] { 44, 1486, 62379, 2103487 } },
+            { "Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[] { 46, 2079, 89890, 3894594 } },
+    };
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "suite";
+        try {
+            switch (command) {
+                case "suite":
+                    int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+                    System.exit(runSuite(maxDepth) ? 0 : 1);
+                    break;
+                case "perft":
+                case "divide":
+                    if (args.length < 2) {
+                        usage();
+                        System.exit(2);
+                    }
+                    int depth = Integer.parseInt(args[1]);
+                    String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length))
+                            : Fen.START;
+                    if (command.equals("perft")) {
+                        runPerft(fen, depth);
+                    } else {
+                        runDivide(fen, depth);
+                    }
+                    break;
+                default:
+                    usage();
+                    System.exit(2);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static boolean runSuite(int maxDepth) {
+        Perft perft = new Perft();
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Object[] entry : SUITE) {
+            String name = (String) entry[0];
+            String fen = (String) entry[1];
+            long[] expected = (long[]) entry[2];
+            Board board = Fen.toBoard(fen);
+            PieceColor side = Fen.sideToMove(fen);
+
+            System.out.println(name + "  " + fen);
+            for (int depth = 1; depth <= expected.length && depth <= maxDepth; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(board, side, depth);
+                long nanos = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += nanos;
+
+                boolean ok = nodes == expected[depth - 1];
+                allPassed &= ok;
+                System.out.printf("  depth %d  %12d  %s%s%n", depth, nodes, ok ? "ok  " : "FAIL",
+                        ok ? timing(nodes, nanos) : "  expected " + expected[depth - 1]);
+            }
+        }
+        System.out.println((allPassed ? "All counts match." : "Count mismatch detected.")
+                + "  Total" + timing(totalNodes, totalNanos));
+        return allPassed;
+    }
+
+    private static void runPerft(String fen, int depth) {
+        Board board = Fen.toBoard(fen);
+        PieceColor side = Fen.sideToMove(fen);
+        long start = System.nanoTime();
+        long nodes = new Perft().count(board, side, depth);
+        long nanos = System.nanoTime() - start;
+        System.out.println("perft(" + depth + ") = " + nodes + timing(nodes, nanos));
+    }
+
+    private static void runDivide(String fen, int depth) {
+        Board board = Fen.toBoard(fen);
+        PieceColor side = Fen.sideToMove(fen);
+        long start = System.nanoTime();
+        Map<String, Long> counts = new Perft().divide(board, side, depth);
+        long nanos = System.nanoTime() - start;
+        long total = 0;
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            System.out.println(e.getKey() + ": " + e.getValue());
+            total += e.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + counts.size());
+        System.out.println("Nodes: " + total + timing(total, nanos));
+    }
+
+    private static String timing(long nodes, long nanos) {
+        long millis = nanos / 1_000_000;
+        long nps = nanos > 0 ? (long) (nodes * 1e9 / nanos) : 0;
+        return String.format("  %6d ms  %,d nodes/s", millis, nps);
+    }
+
+    private static void usage() {
+        System.err.println("Usage: PerftMain [suite [maxDepth] | perft <depth> [fen] | divide <depth> [fen]]");
+    }
+}
@@ -0,0 +1,610 @@
+package chess.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import chess.model.Board;
+import chess.util.PersistenceWriter;
+
+/**
+ * Archive of finished games, kept in one directory so any number of games can be
+ * searched without reading them back one by one.
+ *
+ * <ul>
+ *   <li>{@code moves.bin}: the move stream, every game's {@link StepRecord}s one after
+ *   the other</li>
+ *   <li>{@code games.bin}: the game table, one fixed-size entry per game pointing into
+ *   the move stream</li>
+ *   <li>{@code positions.bin}: the position index, one entry per ply with the Zobrist
+ *   key of the position reached, sorted by key up to a count kept in its header and
+ *   followed by the entries of the games added since</li>
+ * </ul>
+ *
+ * <p>
+ * Reads go through {@link MappedByteBuffer}s: {@link #findPosition} binary-searches the
+ * sorted part and scans the short unsorted tail, {@link #getStep} reads one record.
+ * Games are written by the {@link PersistenceWriter} thread, moves first and the game
+ * entry before its index entries. The files are synced together, so the disk may keep
+ * them in any order: after a crash they are cut back to the last game whose entry and
+ * moves are both whole. A game that is still waiting for the writer is not visible yet.
+ *
+ * <pre>
+ *  each file:  int32 magic, int16 version (1), int16 zero,
+ *              int64 sorted entries (positions.bin; -1 while they are rewritten) or zero
+ *  game entry: int64 first move record, int32 plies, byte game mode or -1,
+ *              byte outcome, int16 zero, int64 final position key, int32 zero,
+ *              int32 CRC32 of the 28 bytes before
+ *  position:   int64 key, int32 game, int32 ply
+ * </pre>
+ */
+public class GameArchive implements PersistenceWriter.Target {
+    public static final String DEFAULT_DIRECTORY = "game_archive";
+
+    private static final int GAMES_MAGIC = 0x43414731; // "CAG1"
+    private static final int MOVES_MAGIC = 0x43414D31; // "CAM1"
+    private static final int POSITIONS_MAGIC = 0x43415031; // "CAP1"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int GAME_BYTES = 32;
+    private static final int GAME_PAYLOAD_BYTES = 28;
+    private static final int POSITION_BYTES = 16;
+    /** Unsorted index entries tolerated before a merge, at least. */
+    private static final int MIN_UNSORTED = 4096;
+
+    public enum Outcome {
+        UNKNOWN, WHITE_WINS, BLACK_WINS, DRAW
+    }
+
+    /**
+     * Entry of the game table.
+     */
+    public static final class GameEntry {
+        private final int game;
+        private final int plyCount;
+        private final GameMetadata.GameMode mode;
+        private final Outcome outcome;
+        private final long finalPositionKey;
+
+        GameEntry(int game, int plyCount, GameMetadata.GameMode mode, Outcome outcome, long finalPositionKey) {
+            this.game = game;
+            this.plyCount = plyCount;
+            this.mode = mode;
+            this.outcome = outcome;
+            this.finalPositionKey = finalPositionKey;
+        }
+
+        public int getGame() {
+            return game;
+        }
+
+        public int getPlyCount() {
+            return plyCount;
+        }
+
+        /** Game mode, or null when it was not known. */
+        public GameMetadata.GameMode getMode() {
+            return mode;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public long getFinalPositionKey() {
+            return finalPositionKey;
+        }
+    }
+
+    /**
+     * A game and the ply after which it reached a position.
+     */
+    public static final class PositionRef {
+        private final int game;
+        private final int ply;
+
+        PositionRef(int game, int ply) {
+            this.game = game;
+            this.ply = ply;
+        }
+
+        public int getGame() {
+            return game;
+        }
+
+        public int getPly() {
+            return ply;
+        }
+
+        @Override
+        public String toString() {
+            return "partida " + game + ", ply " + ply;
+        }
+    }
+
+    private static final class PendingGame {
+        final List<Step> steps;
+        final GameMetadata.GameMode mode;
+        final Outcome outcome;
+
+        PendingGame(List<Step> steps, GameMetadata.GameMode mode, Outcome outcome) {
+            this.steps = steps;
+            this.mode = mode;
+            this.outcome = outcome;
+        }
+    }
+
+    private static GameArchive instance;
+
+    private final Path directory;
+    private final PersistenceWriter writer;
+    /** Games added and not yet written. Guarded by {@code this}. */
+    private final List<PendingGame> pending = new ArrayList<>();
+
+    // File state below: guarded by fileLock, shared by the writer thread and readers
+    private final Object fileLock = new Object();
+    private FileChannel games;
+    private FileChannel moves;
+    private FileChannel positions;
+    private int gameCount;
+    private long moveCount;
+    private long positionCount;
+    private long sortedCount;
+    private MappedByteBuffer gameMap;
+    private MappedByteBuffer moveMap;
+    private MappedByteBuffer positionMap;
+    private boolean mapsStale = true;
+
+    public GameArchive(String directory) {
+        this(directory, PersistenceWriter.getInstance());
+    }
+
+    public GameArchive(String directory, PersistenceWriter writer) {
+        this.directory = Paths.get(directory);
+        this.writer = writer;
+    }
+
+    /**
+     * Archive in {@link #DEFAULT_DIRECTORY}, shared by the whole application.
+     */
+    public static synchronized GameArchive getInstance() {
+        if (instance == null) {
+            instance = new GameArchive(DEFAULT_DIRECTORY);
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a finished game, played from the initial position, to be archived.
+     *
+     * @param mode game mode, or null when unknown
+     */
+    public void addGame(List<Step> steps, GameMetadata.GameMode mode, Outcome outcome) {
+        synchronized (this) {
+            pending.add(new PendingGame(new ArrayList<>(steps), mode, outcome != null ? outcome : Outcome.UNKNOWN));
+        }
+        writer.submit(this);
+    }
+
+    @Override
+    public void writePending() throws IOException {
+        List<PendingGame> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        synchronized (fileLock) {
+            ensureOpen();
+            for (PendingGame game : batch) {
+                append(game);
+            }
+            if (positionCount - sortedCount > Math.max(MIN_UNSORTED, sortedCount / 8)) {
+                mergeIndex();
+            }
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        synchronized (fileLock) {
+            for (FileChannel channel : new FileChannel[] { moves, games, positions }) {
+                if (channel != null) {
+                    channel.force(false);
+                }
+            }
+        }
+    }
+
+    public int getGameCount() {
+        synchronized (fileLock) {
+            return open() ? gameCount : 0;
+        }
+    }
+
+    /**
+     * Entry of {@code game} in the game table, or null when there is no such game.
+     */
+    public GameEntry getGame(int game) {
+        synchronized (fileLock) {
+            if (!open() || game < 0 || game >= gameCount) {
+                return null;
+            }
+            return readEntry(gameMap, game);
+        }
+    }
+
+    /**
+     * Steps of {@code game}, or null when there is no such game.
+     */
+    public List<Step> loadGame(int game) {
+        synchronized (fileLock) {
+            GameEntry entry = getGame(game);
+            if (entry == null) {
+                return null;
+            }
+            long first = firstMove(game);
+            List<Step> steps = new ArrayList<>(entry.getPlyCount());
+            for (int i = 0; i < entry.getPlyCount(); i++) {
+                Step step = readStep(first + i);
+                if (step == null) {
+                    System.err.println("Movimiento dañado en la partida archivada " + game);
+                    break;
+                }
+                steps.add(step);
+            }
+            return steps;
+        }
+    }
+
+    /**
+     * Step played at {@code ply} of {@code game}, from the position after {@code ply}
+     * steps; null when the game ended there or does not exist.
+     */
+    public Step getStep(int game, int ply) {
+        synchronized (fileLock) {
+            GameEntry entry = getGame(game);
+            if (entry == null || ply < 0 || ply >= entry.getPlyCount()) {
+                return null;
+            }
+            return readStep(firstMove(game) + ply);
+        }
+    }
+
+    /**
+     * Every ply of every archived game after which the position had {@code key} (see
+     * {@link Board#getZobristKey}), in no particular order. A game that passed
+     * through the position more than once appears once per visit.
+     */
+    public List<PositionRef> findPosition(long key) {
+        synchronized (fileLock) {
+            List<PositionRef> found = new ArrayList<>();
+            if (!open()) {
+                return found;
+            }
+            long low = 0;
+            long high = sortedCount;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (positionKey(mid) < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (long i = low; i < sortedCount && positionKey(i) == key; i++) {
+                addRef(found, i);
+            }
+            for (long i = sortedCount; i < positionCount; i++) {
+                if (positionKey(i) == key) {
+                    addRef(found, i);
+                }
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Opens the files for a read and maps them again when they grew.
+     *
+     * @return false when the archive cannot be read
+     */
+    private boolean open() {
+        try {
+            ensureOpen();
+            if (mapsStale) {
+                gameMap = games.map(FileChannel.MapMode.READ_ONLY, 0, games.size());
+                moveMap = moves.map(FileChannel.MapMode.READ_ONLY, 0, moves.size());
+                positionMap = positions.map(FileChannel.MapMode.READ_ONLY, 0, positions.size());
+                mapsStale = false;
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error al leer el archivo de partidas: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Opens the three files, once.
+     */
+    private void ensureOpen() throws IOException {
+        if (games != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            games = openFile("games.bin", GAMES_MAGIC);
+            moves = openFile("moves.bin", MOVES_MAGIC);
+            positions = openFile("positions.bin", POSITIONS_MAGIC);
+            recover();
+        } catch (IOException e) {
+            closeFiles();
+            throw e;
+        }
+    }
+
+    /**
+     * Cuts the files back to the last complete game.
+     */
+    private void recover() throws IOException {
+
+        ByteBuffer table = read(games, HEADER_BYTES, games.size() - HEADER_BYTES);
+        // The entry may reach the disk before the moves it points to
+        long storedMoves = (moves.size() - HEADER_BYTES) / StepRecord.BYTES;
+        gameCount = 0;
+        moveCount = 0;
+        while (table.remaining() >= GAME_BYTES) {
+            int start = table.position();
+            long first = table.getLong(start);
+            int plies = table.getInt(start + 8);
+            if (table.getInt(start + GAME_PAYLOAD_BYTES) != checksum(table, start)
+                    || first != moveCount || plies < 0 || first + plies > storedMoves) {
+                System.err.println("Archivo de partidas dañado: se conservan " + gameCount + " partidas");
+                break;
+            }
+            gameCount++;
+            moveCount = first + plies;
+            table.position(start + GAME_BYTES);
+        }
+        games.truncate(HEADER_BYTES + (long) gameCount * GAME_BYTES);
+        moves.truncate(HEADER_BYTES + moveCount * StepRecord.BYTES);
+
+        positionCount = (positions.size() - HEADER_BYTES) / POSITION_BYTES;
+        positions.truncate(HEADER_BYTES + positionCount * POSITION_BYTES);
+        sortedCount = read(positions, 8, 8).getLong();
+        mapsStale = true;
+        if (sortedCount < 0 || sortedCount > positionCount || positionCount != moveCount) {
+            // A merge was cut short, or the index keeps entries of a game dropped above
+            // or lacks some of the last game's: it follows from the games
+            rebuildIndex();
+        }
+    }
+
+    private void closeFiles() {
+        for (FileChannel channel : new FileChannel[] { games, moves, positions }) {
+            if (channel == null) {
+                continue;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el archivo de partidas: " + e.getMessage());
+            }
+        }
+        games = null;
+        moves = null;
+        positions = null;
+    }
+
+    private FileChannel openFile(String name, int magic) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_BYTES) {
+            channel.truncate(0);
+            writeHeader(channel, magic, 0);
+            return channel;
+        }
+        ByteBuffer header = read(channel, 0, HEADER_BYTES);
+        if (header.getInt(0) != magic || header.getShort(4) != VERSION) {
+            channel.close();
+            throw new IOException("Formato desconocido en " + name);
+        }
+        return channel;
+    }
+
+    private void append(PendingGame game) throws IOException {
+        int plies = game.steps.size();
+        ByteBuffer records = ByteBuffer.allocate(plies * StepRecord.BYTES);
+        ByteBuffer index = ByteBuffer.allocate(plies * POSITION_BYTES);
+        Board board = new Board();
+        for (int i = 0; i < plies; i++) {
+            Step step = game.steps.get(i);
+            StepRecord.write(step, records);
+            StepRecord.replay(board, step);
+            index.putLong(board.getZobristKey(StepRecord.sideToMove(i + 1)));
+            index.putInt(gameCount);
+            index.putInt(i + 1);
+        }
+
+        ByteBuffer entry = ByteBuffer.allocate(GAME_BYTES);
+        entry.putLong(moveCount);
+        entry.putInt(plies);
+        entry.put((byte) (game.mode != null ? game.mode.ordinal() : -1));
+        entry.put((byte) game.outcome.ordinal());
+        entry.putShort((short) 0);
+        entry.putLong(board.getZobristKey(StepRecord.sideToMove(plies)));
+        entry.putInt(0);
+        entry.putInt(checksum(entry, 0));
+
+        // The entry makes the game visible, so it goes after its moves
+        records.flip();
+        writeFully(moves, records, HEADER_BYTES + moveCount * StepRecord.BYTES);
+        entry.flip();
+        writeFully(games, entry, HEADER_BYTES + (long) gameCount * GAME_BYTES);
+        index.flip();
+        writeFully(positions, index, HEADER_BYTES + positionCount * POSITION_BYTES);
+
+        gameCount++;
+        moveCount += plies;
+        positionCount += plies;
+        mapsStale = true;
+    }
+
+    /**
+     * Sorts the unsorted tail of the index and merges it into the sorted part.
+     */
+    private void mergeIndex() throws IOException {
+        int total = (int) positionCount;
+        ByteBuffer all = read(positions, HEADER_BYTES, (long) total * POSITION_BYTES);
+        long[] keys = new long[total];
+        long[] refs = new long[total];
+        for (int i = 0; i < total; i++) {
+            keys[i] = all.getLong();
+            refs[i] = all.getLong();
+        }
+
+        int sorted = (int) sortedCount;
+        Integer[] tail = new Integer[total - sorted];
+        for (int i = 0; i < tail.length; i++) {
+            tail[i] = sorted + i;
+        }
+        Arrays.sort(tail, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        ByteBuffer merged = ByteBuffer.allocate(total * POSITION_BYTES);
+        int i = 0;
+        int j = 0;
+        while (i < sorted || j < tail.length) {
+            int next;
+            if (j == tail.length || (i < sorted && keys[i] <= keys[tail[j]])) {
+                next = i++;
+            } else {
+                next = tail[j++];
+            }
+            merged.putLong(keys[next]);
+            merged.putLong(refs[next]);
+        }
+
+        writeHeader(positions, POSITIONS_MAGIC, -1);
+        positions.force(false);
+        merged.flip();
+        writeFully(positions, merged, HEADER_BYTES);
+        positions.force(false);
+        writeHeader(positions, POSITIONS_MAGIC, positionCount);
+        sortedCount = positionCount;
+        mapsStale = true;
+    }
+
+    /**
+     * Writes the index again from the games in the move stream.
+     */
+    private void rebuildIndex() throws IOException {
+        System.err.println("Reconstruyendo el índice de posiciones del archivo de partidas");
+        ByteBuffer table = read(games, HEADER_BYTES, (long) gameCount * GAME_BYTES);
+        positions.truncate(HEADER_BYTES);
+        writeHeader(positions, POSITIONS_MAGIC, 0);
+        positionCount = 0;
+        sortedCount = 0;
+        for (int game = 0; game < gameCount; game++) {
+            long first = table.getLong(game * GAME_BYTES);
+            int plies = table.getInt(game * GAME_BYTES + 8);
+            ByteBuffer records = read(moves, HEADER_BYTES + first * StepRecord.BYTES, (long) plies * StepRecord.BYTES);
+            ByteBuffer index = ByteBuffer.allocate(plies * POSITION_BYTES);
+            Board board = new Board();
+            for (int ply = 1; ply <= plies; ply++) {
+                Step step = StepRecord.read(records);
+                if (step == null) {
+                    break;
+                }
+                StepRecord.replay(board, step);
+                index.putLong(board.getZobristKey(StepRecord.sideToMove(ply)));
+                index.putInt(game);
+                index.putInt(ply);
+            }
+            index.flip();
+            writeFully(positions, index, HEADER_BYTES + positionCount * POSITION_BYTES);
+            positionCount += index.limit() / POSITION_BYTES;
+        }
+        mergeIndex();
+    }
+
+    private GameEntry readEntry(ByteBuffer table, int game) {
+        int start = HEADER_BYTES + game * GAME_BYTES;
+        GameMetadata.GameMode[] modes = GameMetadata.GameMode.values();
+        Outcome[] outcomes = Outcome.values();
+        int mode = table.get(start + 12);
+        int outcome = table.get(start + 13);
+        return new GameEntry(
+                game,
+                table.getInt(start + 8),
+                mode >= 0 && mode < modes.length ? modes[mode] : null,
+                outcome >= 0 && outcome < outcomes.length ? outcomes[outcome] : Outcome.UNKNOWN,
+                table.getLong(start + 16));
+    }
+
+    private long firstMove(int game) {
+        return gameMap.getLong(HEADER_BYTES + game * GAME_BYTES);
+    }
+
+    private Step readStep(long record) {
+        ByteBuffer in = moveMap.duplicate();
+        in.position((int) (HEADER_BYTES + record * StepRecord.BYTES));
+        return StepRecord.read(in);
+    }
+
+    private long positionKey(long index) {
+        return positionMap.getLong((int) (HEADER_BYTES + index * POSITION_BYTES));
+    }
+
+    private void addRef(List<PositionRef> found, long index) {
+        int offset = (int) (HEADER_BYTES + index * POSITION_BYTES);
+        int game = positionMap.getInt(offset + 8);
+        if (game < gameCount) {
+            found.add(new PositionRef(game, positionMap.getInt(offset + 12)));
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, int magic, long value) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(magic);
+        header.putShort(VERSION);
+        header.putShort((short) 0);
+        header.putLong(value);
+        header.flip();
+        writeFully(channel, header, 0);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, length));
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start).limit(start + GAME_PAYLOAD_BYTES);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
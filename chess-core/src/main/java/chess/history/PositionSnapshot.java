@@ -0,0 +1,153 @@
+package chess.history;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import chess.model.Bitboards;
+import chess.model.Board;
+import chess.model.Piece;
+import chess.model.PieceColor;
+import chess.model.PieceType;
+import chess.model.Position;
+import chess.model.Zobrist;
+import chess.model.pieces.King;
+import chess.model.pieces.Rook;
+
+/**
+ * Packed board written to the journal of {@link StepHistoryStore} every few plies, so
+ * a position in the middle of a game is restored from the nearest snapshot instead of
+ * replaying from the start.
+ *
+ * <pre>
+ *  32 bytes  one nibble per square, low nibble first: 0 empty,
+ *            else 1 + color * 6 + type
+ *  byte      castling rights (the Zobrist *_SIDE mask)
+ *  byte      en passant square, or -1
+ *  byte      side to move
+ *  byte      reserved, zero
+ *  int32     ply the snapshot follows
+ *  int32     reserved, zero
+ *  int32     CRC32 of the 44 bytes above
+ * </pre>
+ *
+ * Like {@link chess.model.Fen}, the board keeps castling rights in the
+ * {@code hasMoved} flag of kings and rooks: every king and rook is restored as moved
+ * except those the rights name.
+ */
+final class PositionSnapshot {
+    static final int BYTES = 48;
+
+    private static final int PAYLOAD_BYTES = 44;
+    private static final int BOARD_BYTES = 32;
+
+    private final byte[] data;
+
+    private PositionSnapshot(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Packs {@code board} as the position after {@code ply} steps.
+     */
+    static PositionSnapshot of(Board board, PieceColor sideToMove, int ply) {
+        ByteBuffer out = ByteBuffer.allocate(BYTES);
+        for (int sq = 0; sq < 64; sq += 2) {
+            out.put((byte) (squareCode(board.getPieceAt(sq)) | squareCode(board.getPieceAt(sq + 1)) << 4));
+        }
+        out.put((byte) board.getCastlingRights());
+        out.put((byte) board.getEnPassantSquare());
+        out.put((byte) sideToMove.ordinal());
+        out.put((byte) 0);
+        out.putInt(ply);
+        out.putInt(0);
+        out.putInt(checksum(out.array()));
+        return new PositionSnapshot(out.array());
+    }
+
+    /**
+     * Reads the snapshot at the buffer's position, advancing it by {@link #BYTES}.
+     *
+     * @return the snapshot, or null when the checksum does not match
+     */
+    static PositionSnapshot read(ByteBuffer in) {
+        byte[] data = new byte[BYTES];
+        in.get(data);
+        if (ByteBuffer.wrap(data).getInt(PAYLOAD_BYTES) != checksum(data)) {
+            return null;
+        }
+        return new PositionSnapshot(data);
+    }
+
+    /**
+     * Writes the snapshot at the buffer's position, advancing it by {@link #BYTES}.
+     */
+    void write(ByteBuffer out) {
+        out.put(data);
+    }
+
+    int getPly() {
+        return ByteBuffer.wrap(data).getInt(36);
+    }
+
+    PieceColor getSideToMove() {
+        return PieceColor.values()[data[34]];
+    }
+
+    /**
+     * A new board holding the packed position.
+     */
+    Board toBoard() {
+        Board board = new Board();
+        board.clear();
+        for (int sq = 0; sq < 64; sq++) {
+            int code = (data[sq >> 1] >> ((sq & 1) * 4)) & 0xF;
+            if (code != 0) {
+                Piece piece = StepRecord.newPiece(PieceType.values()[(code - 1) % 6],
+                        PieceColor.values()[(code - 1) / 6]);
+                if (piece instanceof King) {
+                    ((King) piece).setHasMoved(true);
+                } else if (piece instanceof Rook) {
+                    ((Rook) piece).setHasMoved(true);
+                }
+                board.setPieceAt(new Position(Bitboards.row(sq), Bitboards.col(sq)), piece);
+            }
+        }
+
+        int rights = data[BOARD_BYTES];
+        restoreCastling(board, rights, Zobrist.WHITE_KING_SIDE, 7, 7);
+        restoreCastling(board, rights, Zobrist.WHITE_QUEEN_SIDE, 7, 0);
+        restoreCastling(board, rights, Zobrist.BLACK_KING_SIDE, 0, 7);
+        restoreCastling(board, rights, Zobrist.BLACK_QUEEN_SIDE, 0, 0);
+
+        int enPassant = data[BOARD_BYTES + 1];
+        if (enPassant >= 0) {
+            board.setEnPassantTarget(new Position(Bitboards.row(enPassant), Bitboards.col(enPassant)));
+        }
+        return board;
+    }
+
+    private static void restoreCastling(Board board, int rights, int side, int homeRow, int rookCol) {
+        if ((rights & side) == 0) {
+            return;
+        }
+        Piece king = board.getPieceAt(Bitboards.square(homeRow, 4));
+        Piece rook = board.getPieceAt(Bitboards.square(homeRow, rookCol));
+        if (king instanceof King && rook instanceof Rook) {
+            ((King) king).setHasMoved(false);
+            ((Rook) rook).setHasMoved(false);
+        }
+    }
+
+    private static int squareCode(Piece piece) {
+        if (piece == null) {
+            return 0;
+        }
+        return 1 + piece.getColor().ordinal() * 6 + piece.getType().ordinal();
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, PAYLOAD_BYTES);
+        return (int) crc.getValue();
+    }
+}
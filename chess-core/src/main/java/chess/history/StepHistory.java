@@ -73,6 +73,20 @@ public class StepHistory {
         return step;
     }
 
+    /**
+     * The step {@link #popForUndo()} would return, or null.
+     */
+    public Step peekUndo() {
+        return past.peekLast();
+    }
+
+    /**
+     * The step {@link #popForRedo()} would return, or null.
+     */
+    public Step peekRedo() {
+        return future.peekLast();
+    }
+
     /**
      * Returns applied steps in order. (Future steps are not persisted by design.)
      */
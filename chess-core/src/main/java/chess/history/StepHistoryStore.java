@@ -0,0 +1,548 @@
+package chess.history;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import chess.model.Board;
+import chess.util.PersistenceWriter;
+
+/**
+ * Persistence for {@link StepHistory}.
+ *
+ * <p>
+ * Policy (as per current requirements): we only persist the applied timeline (past).
+ * If the user undoes and closes the game, the file reflects the state at the moment of closing.
+ *
+ * <p>
+ * The file is an append-only journal: a fixed header holding the {@link GameMetadata},
+ * then one {@link StepRecord} per applied step. A move appends one record and
+ * rewrites the header in place; an undo truncates the tail. Every record carries a
+ * checksum, so after a crash the file is read up to its last complete record and the
+ * broken tail is cut off by the next write. Files in the former serialized format are
+ * still read, and rewritten as a journal on the first write.
+ *
+ * <p>
+ * The header also keeps the Zobrist key of the position after the last step, as
+ * given by the caller, so a loader may replay the steps without checking each move
+ * and compare the key at the end.
+ *
+ * <p>
+ * Every {@link #SNAPSHOT_INTERVAL} records are followed by a {@link PositionSnapshot}
+ * of the position they lead to, so {@link #positionAt} restores any ply from the
+ * nearest snapshot and fewer than {@code SNAPSHOT_INTERVAL} replayed steps; the offset
+ * of a ply follows from its number.
+ *
+ * <p>
+ * Saving only records what the file should hold; the {@link PersistenceWriter} thread
+ * brings the file up to date later, so a burst of moves costs one write and callers
+ * never wait for the disk. Loading first waits for pending writes.
+ *
+ * <pre>
+ *  int32   magic "CJR1"
+ *  int16   format version (3; version 2 had no snapshots, version 1 no position key
+ *          and a 32-byte header)
+ *  byte    flags: 1 when metadata follows, 2 when the position key is known
+ *  byte    game mode ordinal
+ *  int64   white time remaining (ms)
+ *  int64   black time remaining (ms)
+ *  int64   Zobrist key of the final position
+ *  int32   snapshot interval in plies
+ *  int32   CRC32 of the 36 bytes above
+ * </pre>
+ */
+public class StepHistoryStore implements PersistenceWriter.Target {
+    /** Plies between two snapshots of the board in the file. */
+    public static final int SNAPSHOT_INTERVAL = 16;
+
+    private static final int MAGIC = 0x434A5231; // "CJR1"
+    private static final short VERSION = 3;
+    private static final int HEADER_BYTES = 40;
+    private static final int V1_HEADER_BYTES = 32;
+    private static final int FLAG_METADATA = 1;
+    private static final int FLAG_POSITION_KEY = 2;
+
+    private final String filePath;
+    private final PersistenceWriter writer;
+    private GameMetadata gameMetadata;
+    /** Steps the file should hold, as last saved or loaded. Guarded by {@code this}. */
+    private final List<Step> requested = new ArrayList<>();
+    /** Zobrist key after the requested steps, or null when unknown. */
+    private Long positionKey;
+    /** Snapshot after ply {@code (i + 1) * SNAPSHOT_INTERVAL} of the file, at index i. */
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private boolean closeRequested;
+
+    // File state below: touched by the writer thread, or by a caller after flushing
+
+    /** Steps held by the file, in order, as the objects last saved or loaded. */
+    private final List<Step> persisted = new ArrayList<>();
+    /** True when the file holds exactly {@link #persisted} in journal format. */
+    private boolean journalInSync;
+    private FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    private final ByteBuffer record = ByteBuffer.allocate(StepRecord.BYTES);
+    private final ByteBuffer snapshot = ByteBuffer.allocate(PositionSnapshot.BYTES);
+    /** Position after {@link #persisted}, for the next snapshot; null until needed. */
+    private Board journalBoard;
+
+    /**
+     * A snapshot with the step it follows. The step object tells whether the snapshot
+     * still belongs to a list of steps: once an earlier step is undone and replaced, the
+     * steps after it are new objects.
+     */
+    private static final class Checkpoint {
+        final PositionSnapshot snapshot;
+        final Step last;
+
+        Checkpoint(PositionSnapshot snapshot, Step last) {
+            this.snapshot = snapshot;
+            this.last = last;
+        }
+    }
+
+    public StepHistoryStore(String filePath) {
+        this(filePath, PersistenceWriter.getInstance());
+    }
+
+    public StepHistoryStore(String filePath, PersistenceWriter writer) {
+        this.filePath = filePath;
+        this.writer = writer;
+        this.gameMetadata = null;
+    }
+
+    public synchronized void setGameMetadata(GameMetadata metadata) {
+        this.gameMetadata = metadata;
+    }
+
+    public synchronized GameMetadata getGameMetadata() {
+        return gameMetadata;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Zobrist key, with the side to move, of the position after the saved steps; null
+     * when the file does not record it.
+     */
+    public synchronized Long getPositionKey() {
+        return positionKey;
+    }
+
+    /**
+     * Board after the first {@code ply} saved steps, restored from the nearest snapshot
+     * and the steps after it, which are replayed without checks.
+     *
+     * @return a new board, or null when fewer steps are saved
+     */
+    public synchronized Board positionAt(int ply) {
+        return positionAt(requested, ply);
+    }
+
+    /**
+     * Board after the first {@code ply} of {@code steps}, a list that may differ from the
+     * saved one after some step, such as the applied steps of a history being undone
+     * and redone. Only the snapshots of the common prefix are used.
+     *
+     * @return a new board, or null when {@code steps} is shorter
+     */
+    public synchronized Board positionAt(List<Step> steps, int ply) {
+        if (ply < 0 || ply > steps.size()) {
+            return null;
+        }
+        return restore(steps, ply);
+    }
+
+    /**
+     * Makes the file hold the applied steps of {@code history} and the current
+     * metadata. Only the records after the longest prefix already on disk are written.
+     */
+    public void saveApplied(StepHistory history) {
+        saveApplied(history, null);
+    }
+
+    /**
+     * Like {@link #saveApplied(StepHistory)}, recording {@code positionKey} as the key of
+     * the position the steps lead to.
+     */
+    public void saveApplied(StepHistory history, Long positionKey) {
+        synchronized (this) {
+            requested.clear();
+            if (history != null) {
+                requested.addAll(history.getAppliedSteps());
+            }
+            this.positionKey = positionKey;
+        }
+        writer.submit(this);
+    }
+
+    /**
+     * Appends {@code step}, which must follow the steps already saved, and rewrites the
+     * header with the metadata and {@code positionKey}, the key of the position after it.
+     */
+    public void append(Step step, long positionKey) {
+        synchronized (this) {
+            requested.add(step);
+            this.positionKey = positionKey;
+        }
+        writer.submit(this);
+    }
+
+    /**
+     * Asks for the file to reach the disk soon, without waiting for the writer's
+     * interval; for the end of a game.
+     */
+    public void requestSync() {
+        writer.requestSync(this);
+    }
+
+    @Override
+    public void writePending() throws IOException {
+        List<Step> applied;
+        GameMetadata metadata;
+        Long key;
+        synchronized (this) {
+            applied = new ArrayList<>(requested);
+            metadata = gameMetadata;
+            key = positionKey;
+        }
+        int common = 0;
+        int limit = Math.min(applied.size(), persisted.size());
+        while (common < limit && applied.get(common) == persisted.get(common)) {
+            common++;
+        }
+        try {
+            ensureOpen(metadata, key);
+            if (common < persisted.size()) {
+                truncateTo(common);
+            }
+            for (int i = common; i < applied.size(); i++) {
+                writeRecord(applied.get(i));
+            }
+            writeHeader(metadata, key);
+        } catch (IOException e) {
+            handleWriteError(e);
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        boolean close;
+        synchronized (this) {
+            close = closeRequested;
+            closeRequested = false;
+        }
+        if (channel != null) {
+            channel.force(false);
+        }
+        if (close) {
+            closeChannel();
+        }
+    }
+
+    public List<Step> loadApplied() {
+        // Pending writes of this or another store may target the same file
+        writer.flush();
+        closeChannel();
+        persisted.clear();
+        journalInSync = false;
+        journalBoard = null;
+        synchronized (this) {
+            requested.clear();
+            positionKey = null;
+            checkpoints.clear();
+        }
+
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return new ArrayList<>();
+        }
+
+        List<Step> loaded;
+        try {
+            loaded = isJournal(file) ? readJournal() : readLegacy();
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error al cargar el historial de steps: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+        persisted.addAll(loaded);
+        synchronized (this) {
+            requested.addAll(loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Syncs and releases the file once the pending writes are done. A later save opens
+     * it again.
+     */
+    public void close() {
+        synchronized (this) {
+            closeRequested = true;
+        }
+        writer.requestSync(this);
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el historial de steps: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void ensureOpen(GameMetadata metadata, Long key) throws IOException {
+        if (channel != null) {
+            return;
+        }
+        channel = FileChannel.open(path(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (journalInSync) {
+            // Drops a tail left by a crash after the last complete record
+            channel.truncate(recordOffset(persisted.size()));
+            return;
+        }
+        List<Step> steps = new ArrayList<>(persisted);
+        persisted.clear();
+        synchronized (this) {
+            checkpoints.clear();
+        }
+        journalBoard = new Board();
+        channel.truncate(0);
+        writeHeader(metadata, key);
+        for (Step step : steps) {
+            writeRecord(step);
+        }
+        journalInSync = true;
+    }
+
+    private void writeRecord(Step step) throws IOException {
+        if (journalBoard == null) {
+            journalBoard = restore(persisted, persisted.size());
+        }
+        record.clear();
+        StepRecord.write(step, record);
+        record.flip();
+        writeFully(record, recordOffset(persisted.size()));
+        persisted.add(step);
+        StepRecord.replay(journalBoard, step);
+
+        int ply = persisted.size();
+        if (ply % SNAPSHOT_INTERVAL == 0) {
+            PositionSnapshot taken = PositionSnapshot.of(journalBoard, StepRecord.sideToMove(ply), ply);
+            snapshot.clear();
+            taken.write(snapshot);
+            snapshot.flip();
+            writeFully(snapshot, recordOffset(ply) - PositionSnapshot.BYTES);
+            synchronized (this) {
+                checkpoints.add(new Checkpoint(taken, step));
+            }
+        }
+    }
+
+    private void truncateTo(int count) throws IOException {
+        channel.truncate(recordOffset(count));
+        persisted.subList(count, persisted.size()).clear();
+        synchronized (this) {
+            checkpoints.subList(count / SNAPSHOT_INTERVAL, checkpoints.size()).clear();
+        }
+        journalBoard = null;
+    }
+
+    /**
+     * Board after the first {@code ply} of {@code steps}, starting from the last
+     * checkpoint that belongs to them.
+     */
+    private synchronized Board restore(List<Step> steps, int ply) {
+        int index = Math.min(ply / SNAPSHOT_INTERVAL, checkpoints.size()) - 1;
+        while (index >= 0 && checkpoints.get(index).last != steps.get((index + 1) * SNAPSHOT_INTERVAL - 1)) {
+            index--;
+        }
+        Board board = index >= 0 ? checkpoints.get(index).snapshot.toBoard() : new Board();
+        for (int i = (index + 1) * SNAPSHOT_INTERVAL; i < ply; i++) {
+            StepRecord.replay(board, steps.get(i));
+        }
+        return board;
+    }
+
+
+    private void writeHeader(GameMetadata metadata, Long key) throws IOException {
+        header.clear();
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.put((byte) ((metadata != null ? FLAG_METADATA : 0) | (key != null ? FLAG_POSITION_KEY : 0)));
+        header.put((byte) (metadata != null ? metadata.getGameMode().ordinal() : 0));
+        header.putLong(metadata != null ? metadata.getWhiteTimeMillis() : 0);
+        header.putLong(metadata != null ? metadata.getBlackTimeMillis() : 0);
+        header.putLong(key != null ? key : 0);
+        header.putInt(SNAPSHOT_INTERVAL);
+        header.putInt(headerChecksum(header, HEADER_BYTES));
+        header.flip();
+        writeFully(header, 0);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Forgets the state of the file after a failed write, so the next write rebuilds it
+     * from scratch.
+     */
+    private void handleWriteError(IOException e) {
+        System.err.println("Error al guardar el historial de steps: " + e.getMessage());
+        e.printStackTrace();
+        closeChannel();
+        journalInSync = false;
+    }
+
+    private boolean isJournal(File file) throws IOException {
+        if (file.length() < 4) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(path(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && in.read(magic) >= 0) {
+                // read the whole magic
+            }
+            return magic.position() == 4 && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads the header and every record up to the first incomplete or corrupt one.
+     */
+    private List<Step> readJournal() throws IOException {
+        ByteBuffer data;
+        try (FileChannel in = FileChannel.open(path(), StandardOpenOption.READ)) {
+            data = ByteBuffer.allocate((int) in.size());
+            while (data.hasRemaining() && in.read(data) >= 0) {
+                // read the whole file
+            }
+        }
+        data.flip();
+
+        List<Step> steps = new ArrayList<>();
+        int version = data.remaining() >= 6 ? data.getShort(4) : 0;
+        int headerBytes = version == 1 ? V1_HEADER_BYTES : HEADER_BYTES;
+        if (version < 1 || version > VERSION || data.remaining() < headerBytes) {
+            return steps;
+        }
+        ByteBuffer head = data.duplicate();
+        head.limit(headerBytes);
+        boolean headerValid = head.getInt(headerBytes - 4) == headerChecksum(head, headerBytes);
+        int flags = headerValid ? head.get(6) : 0;
+        GameMetadata.GameMode[] modes = GameMetadata.GameMode.values();
+        int mode = head.get(7);
+        setGameMetadata((flags & FLAG_METADATA) != 0 && mode >= 0 && mode < modes.length
+                ? new GameMetadata(modes[mode], head.getLong(8), head.getLong(16))
+                : null);
+        Long key = version > 1 && (flags & FLAG_POSITION_KEY) != 0 ? head.getLong(24) : null;
+        int interval = 0;
+        if (version == VERSION) {
+            // Without a valid header, assume the interval this class writes
+            interval = headerValid ? Math.max(0, head.getInt(32)) : SNAPSHOT_INTERVAL;
+        }
+
+        data.position(headerBytes);
+        List<Checkpoint> found = new ArrayList<>();
+        while (data.remaining() >= StepRecord.BYTES) {
+            Step step = StepRecord.read(data);
+            if (step != null) {
+                steps.add(step);
+            }
+            if (step != null && interval > 0 && steps.size() % interval == 0) {
+                PositionSnapshot taken = data.remaining() >= PositionSnapshot.BYTES
+                        ? PositionSnapshot.read(data)
+                        : null;
+                if (taken != null && taken.getPly() == steps.size()) {
+                    found.add(new Checkpoint(taken, step));
+                    continue;
+                }
+                // A record without its snapshot is dropped, so the snapshots stay in place
+                steps.remove(steps.size() - 1);
+                step = null;
+            }
+            if (step == null) {
+                System.err.println("Historial de steps dañado: se recuperan " + steps.size() + " movimientos");
+                // The key belongs to the position after the lost records
+                key = null;
+                break;
+            }
+        }
+        if (data.hasRemaining()) {
+            key = null;
+        }
+        synchronized (this) {
+            positionKey = key;
+            if (interval == SNAPSHOT_INTERVAL) {
+                checkpoints.addAll(found);
+            }
+        }
+        // Files of an older version or another interval are rewritten whole on the first save
+        journalInSync = version == VERSION && interval == SNAPSHOT_INTERVAL;
+        return steps;
+    }
+
+    private List<Step> readLegacy() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
+            Object first = ois.readObject();
+
+            if (first instanceof GameMetadata) {
+
+                setGameMetadata((GameMetadata) first);
+                @SuppressWarnings("unchecked")
+                List<Step> loaded = (List<Step>) ois.readObject();
+                return loaded != null ? loaded : new ArrayList<>();
+            } else if (first instanceof List) {
+
+                setGameMetadata(null);
+                @SuppressWarnings("unchecked")
+                List<Step> loaded = (List<Step>) first;
+                return loaded != null ? loaded : new ArrayList<>();
+            } else {
+                System.err.println("Formato de archivo desconocido");
+                return new ArrayList<>();
+            }
+        }
+    }
+
+    private static int headerChecksum(ByteBuffer buffer, int headerBytes) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(0).limit(headerBytes - 4);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Offset of record {@code index}, which is also the length of a file holding that
+     * many records.
+     */
+    private static long recordOffset(int index) {
+        return HEADER_BYTES + (long) index * StepRecord.BYTES
+                + (long) (index / SNAPSHOT_INTERVAL) * PositionSnapshot.BYTES;
+    }
+
+    private Path path() {
+        return Paths.get(filePath);
+    }
+}
@@ -0,0 +1,239 @@
+package chess.history;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import chess.model.Bitboards;
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.Piece;
+import chess.model.PieceColor;
+import chess.model.PieceType;
+import chess.model.Position;
+import chess.model.pieces.Bishop;
+import chess.model.pieces.King;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Pawn;
+import chess.model.pieces.Queen;
+import chess.model.pieces.Rook;
+
+/**
+ * Fixed-size binary form of a {@link Step} in the journal of {@link StepHistoryStore}.
+ *
+ * <pre>
+ *  byte    from square (row * 8 + col)
+ *  byte    to square
+ *  byte    mover after the move: color &lt;&lt; 3 | type, or -1
+ *  byte    captured piece: color &lt;&lt; 3 | type, or -1
+ *  byte    promotion type, or -1
+ *  byte    flags (see FLAG_*)
+ *  byte    en passant target before the move, or -1
+ *  byte    en passant target after the move, or -1
+ *  4 bytes reserved, zero
+ *  int32   CRC32 of the 12 bytes above
+ * </pre>
+ *
+ * Everything else a step carries (display text, rook squares of a castling, the
+ * square of a pawn taken en passant) follows from these fields.
+ */
+final class StepRecord {
+    static final int BYTES = 16;
+
+    private static final int PAYLOAD_BYTES = 12;
+    private static final int NONE = -1;
+
+    private static final int FLAG_CASTLING = 1;
+    private static final int FLAG_EN_PASSANT = 1 << 1;
+    private static final int FLAG_PROMOTION = 1 << 2;
+    private static final int FLAG_MOVER_MOVED_KNOWN = 1 << 3;
+    private static final int FLAG_MOVER_MOVED = 1 << 4;
+    private static final int FLAG_ROOK_MOVED_KNOWN = 1 << 5;
+    private static final int FLAG_ROOK_MOVED = 1 << 6;
+
+    private StepRecord() {
+    }
+
+    /**
+     * Writes {@code step} at the buffer's position, advancing it by {@link #BYTES}.
+     */
+    static void write(Step step, ByteBuffer out) {
+        int start = out.position();
+        Move move = step.getMove();
+        out.put((byte) Bitboards.square(move.getFrom()));
+        out.put((byte) Bitboards.square(move.getTo()));
+        out.put(pieceCode(step.getMoverColor(), step.getMoverType()));
+        Piece captured = step.getCapturedPiece();
+        out.put(captured != null ? pieceCode(captured.getColor(), captured.getType()) : NONE);
+        out.put((byte) (step.isPromotion() && step.getPromotedTo() != null
+                ? step.getPromotedTo().getType().ordinal()
+                : NONE));
+        out.put((byte) flags(step));
+        out.put(squareCode(step.getEnPassantTargetBefore()));
+        out.put(squareCode(step.getEnPassantTargetAfter()));
+        out.putInt(0);
+        out.putInt(checksum(out, start));
+    }
+
+    /**
+     * Reads the record at the buffer's position, advancing it by {@link #BYTES}.
+     *
+     * @return the step, or null when the checksum does not match (a torn or
+     *         unwritten record)
+     */
+    static Step read(ByteBuffer in) {
+        int start = in.position();
+        int expected = checksum(in, start);
+        in.position(start + PAYLOAD_BYTES);
+        if (in.getInt() != expected) {
+            return null;
+        }
+
+        Position from = position(in.get(start));
+        Position to = position(in.get(start + 1));
+        int mover = in.get(start + 2);
+        int captured = in.get(start + 3);
+        int promotion = in.get(start + 4);
+        int flags = in.get(start + 5);
+        Position enPassantBefore = squareOrNull(in.get(start + 6));
+        Position enPassantAfter = squareOrNull(in.get(start + 7));
+
+        PieceColor moverColor = mover != NONE ? color(mover) : null;
+        PieceType moverType = mover != NONE ? type(mover) : null;
+        boolean castling = (flags & FLAG_CASTLING) != 0;
+        boolean enPassant = (flags & FLAG_EN_PASSANT) != 0;
+        boolean promoted = (flags & FLAG_PROMOTION) != 0 && promotion != NONE;
+
+        Piece promotedTo = promoted ? newPiece(PieceType.values()[promotion], moverColor) : null;
+        Move move = new Move(from, to, promotedTo);
+
+        Position rookFrom = null;
+        Position rookTo = null;
+        if (castling) {
+            boolean kingside = to.getCol() > from.getCol();
+            rookFrom = new Position(from.getRow(), kingside ? 7 : 0);
+            rookTo = new Position(from.getRow(), kingside ? 5 : 3);
+        }
+        Position enPassantCapturedPawnPos = enPassant
+                ? new Position(moverColor == PieceColor.WHITE ? to.getRow() + 1 : to.getRow() - 1, to.getCol())
+                : null;
+
+        return new Step(
+                move,
+                moverColor,
+                moverType,
+                notation(from) + "-" + notation(to),
+                captured != NONE ? newPiece(type(captured), color(captured)) : null,
+                castling,
+                rookFrom,
+                rookTo,
+                knownFlag(flags, FLAG_ROOK_MOVED_KNOWN, FLAG_ROOK_MOVED),
+                enPassant,
+                enPassantCapturedPawnPos,
+                promoted,
+                promotedTo,
+                promoted ? new Pawn(moverColor) : null,
+                knownFlag(flags, FLAG_MOVER_MOVED_KNOWN, FLAG_MOVER_MOVED),
+                enPassantBefore,
+                enPassantAfter);
+    }
+
+    /**
+     * Plays {@code step} on {@code board} without checks, with a promotion piece of its
+     * own so the board shares no piece with the step.
+     */
+    static void replay(Board board, Step step) {
+        Move move = step.getMove();
+        if (move.getPromotion() != null) {
+            move = new Move(move.getFrom(), move.getTo(),
+                    newPiece(move.getPromotion().getType(), move.getPromotion().getColor()));
+        }
+        board.movePiece(move);
+    }
+
+    /**
+     * Side to move after {@code ply} steps from the initial position.
+     */
+    static PieceColor sideToMove(int ply) {
+        return ply % 2 == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+    }
+
+    private static int flags(Step step) {
+        int flags = 0;
+        if (step.isCastling()) {
+            flags |= FLAG_CASTLING;
+        }
+        if (step.isEnPassant()) {
+            flags |= FLAG_EN_PASSANT;
+        }
+        if (step.isPromotion()) {
+            flags |= FLAG_PROMOTION;
+        }
+        if (step.getMoverHadMovedBefore() != null) {
+            flags |= FLAG_MOVER_MOVED_KNOWN | (step.getMoverHadMovedBefore() ? FLAG_MOVER_MOVED : 0);
+        }
+        if (step.getRookHadMovedBefore() != null) {
+            flags |= FLAG_ROOK_MOVED_KNOWN | (step.getRookHadMovedBefore() ? FLAG_ROOK_MOVED : 0);
+        }
+        return flags;
+    }
+
+    private static Boolean knownFlag(int flags, int known, int value) {
+        return (flags & known) != 0 ? Boolean.valueOf((flags & value) != 0) : null;
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start).limit(start + PAYLOAD_BYTES);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte pieceCode(PieceColor color, PieceType type) {
+        if (color == null || type == null) {
+            return NONE;
+        }
+        return (byte) (color.ordinal() << 3 | type.ordinal());
+    }
+
+    private static PieceColor color(int code) {
+        return PieceColor.values()[code >> 3];
+    }
+
+    private static PieceType type(int code) {
+        return PieceType.values()[code & 7];
+    }
+
+    private static byte squareCode(Position pos) {
+        return pos != null ? (byte) Bitboards.square(pos) : NONE;
+    }
+
+    private static Position position(int square) {
+        return new Position(Bitboards.row(square), Bitboards.col(square));
+    }
+
+    private static Position squareOrNull(int square) {
+        return square != NONE ? position(square) : null;
+    }
+
+    private static String notation(Position pos) {
+        return "" + (char) ('a' + pos.getCol()) + (8 - pos.getRow());
+    }
+
+    static Piece newPiece(PieceType type, PieceColor color) {
+        switch (type) {
+            case KING:
+                return new King(color);
+            case QUEEN:
+                return new Queen(color);
+            case ROOK:
+                return new Rook(color);
+            case BISHOP:
+                return new Bishop(color);
+            case KNIGHT:
+                return new Knight(color);
+            default:
+                return new Pawn(color);
+        }
+    }
+}
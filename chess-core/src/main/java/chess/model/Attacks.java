@@ -0,0 +1,135 @@
+package chess.model;
+
+/**
+ * Precomputed attack sets for the bitboard layout described in {@link Bitboards}.
+ *
+ * <p>
+ * Leaper attacks (knight, king, pawn) are plain table lookups. Slider attacks are
+ * computed from per-direction rays: the ray is cut at the first blocker, found with a
+ * single bit scan, so no allocation or square-by-square walk is needed.
+ */
+public final class Attacks {
+    /**
+     * Row/col deltas for the eight ray directions; the first four are orthogonal and
+     * opposite directions are paired so that {@code dir ^ 1} reverses {@code dir}.
+     */
+    private static final int[][] DIRECTIONS = {
+            { -1, 0 }, { 1, 0 }, { 0, 1 }, { 0, -1 },
+            { -1, 1 }, { 1, -1 }, { -1, -1 }, { 1, 1 } };
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+    private static final long[][] RAYS = new long[8][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+    /** Whether a direction walks towards higher square indices. */
+    private static final boolean[] POSITIVE = new boolean[8];
+
+    static {
+        int[][] knightDeltas = { { 2, 1 }, { 1, 2 }, { -1, 2 }, { -2, 1 }, { -2, -1 }, { -1, -2 }, { 1, -2 }, { 2, -1 } };
+        for (int sq = 0; sq < 64; sq++) {
+            int r = Bitboards.row(sq);
+            int c = Bitboards.col(sq);
+            for (int[] d : knightDeltas) {
+                KNIGHT[sq] |= maskIfOnBoard(r + d[0], c + d[1]);
+            }
+            for (int[] d : DIRECTIONS) {
+                KING[sq] |= maskIfOnBoard(r + d[0], c + d[1]);
+            }
+            PAWN[PieceColor.WHITE.ordinal()][sq] = maskIfOnBoard(r - 1, c - 1) | maskIfOnBoard(r - 1, c + 1);
+            PAWN[PieceColor.BLACK.ordinal()][sq] = maskIfOnBoard(r + 1, c - 1) | maskIfOnBoard(r + 1, c + 1);
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = 0L;
+                int rr = r + DIRECTIONS[dir][0];
+                int cc = c + DIRECTIONS[dir][1];
+                while (rr >= 0 && rr < 8 && cc >= 0 && cc < 8) {
+                    ray |= Bitboards.bit(Bitboards.square(rr, cc));
+                    rr += DIRECTIONS[dir][0];
+                    cc += DIRECTIONS[dir][1];
+                }
+                RAYS[dir][sq] = ray;
+            }
+        }
+        for (int dir = 0; dir < 8; dir++) {
+            POSITIVE[dir] = DIRECTIONS[dir][0] * 8 + DIRECTIONS[dir][1] > 0;
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int dir = 0; dir < 8; dir++) {
+                for (long ray = RAYS[dir][from]; ray != 0; ray &= ray - 1) {
+                    int to = Long.numberOfTrailingZeros(ray);
+                    BETWEEN[from][to] = RAYS[dir][from] & ~RAYS[dir][to] & ~Bitboards.bit(to);
+                    LINE[from][to] = RAYS[dir][from] | RAYS[dir ^ 1][from] | Bitboards.bit(from);
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    private static long maskIfOnBoard(int row, int col) {
+        if (row < 0 || row > 7 || col < 0 || col > 7)
+            return 0L;
+        return Bitboards.bit(Bitboards.square(row, col));
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Squares attacked by a pawn of the given color standing on {@code square}.
+     */
+    public static long pawn(PieceColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ray(0, square, occupied) | ray(1, square, occupied)
+                | ray(2, square, occupied) | ray(3, square, occupied);
+    }
+
+    public static long bishop(int square, long occupied) {
+        return ray(4, square, occupied) | ray(5, square, occupied)
+                | ray(6, square, occupied) | ray(7, square, occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Squares strictly between two squares on the same rank, file or diagonal; empty
+     * when the squares are not aligned or adjacent.
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * The full rank, file or diagonal through both squares (edge to edge); empty when
+     * the squares are not aligned.
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    /**
+     * Attacks along one direction, including the first blocker (if any).
+     */
+    private static long ray(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0)
+            return ray;
+        int first = POSITIVE[dir]
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[dir][first];
+    }
+}
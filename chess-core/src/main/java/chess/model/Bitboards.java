@@ -0,0 +1,62 @@
+package chess.model;
+
+/**
+ * Helpers for the 64-bit square sets used by {@link Board}.
+ *
+ * <p>
+ * Squares are numbered {@code row * 8 + col} using the same row/column layout as
+ * {@link Position}: square 0 is a8 (row 0, col 0) and square 63 is h1 (row 7, col 7).
+ * Bit {@code n} of a bitboard is set when square {@code n} belongs to the set.
+ */
+public final class Bitboards {
+    public static final long EMPTY = 0L;
+    public static final long ALL = ~0L;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return row * 8 + col;
+    }
+
+    public static int square(Position pos) {
+        return pos.getRow() * 8 + pos.getCol();
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static Position toPosition(int square) {
+        return new Position(square >>> 3, square & 7);
+    }
+
+    /**
+     * Index of the piece set for the given color and type (0..11).
+     */
+    public static int pieceIndex(PieceColor color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Square of the least significant set bit, or 64 when the set is empty.
+     */
+    public static int firstSquare(long bb) {
+        return Long.numberOfTrailingZeros(bb);
+    }
+
+    public static int count(long bb) {
+        return Long.bitCount(bb);
+    }
+}
@@ -0,0 +1,742 @@
+package chess.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import chess.model.pieces.Bishop;
+import chess.model.pieces.King;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Pawn;
+import chess.model.pieces.Queen;
+import chess.model.pieces.Rook;
+
+public class Board {
+    /**
+     * Told about every piece placed on or removed from a square, including the steps
+     * of make/unmake, so derived state can be kept incrementally outside the board.
+     */
+    public interface PieceListener {
+        void piecePlaced(Piece piece, int square);
+
+        void pieceRemoved(Piece piece, int square);
+    }
+
+    /** Piece instances by square, kept in sync with the bitboards below. */
+    private final Piece[] squares = new Piece[64];
+    /** One set per color/type pair, indexed by {@link Bitboards#pieceIndex}. */
+    private final long[] pieceSets = new long[12];
+    private final long[] colorOccupancy = new long[2];
+    private long occupied;
+    /** Zobrist key of the piece placement, updated on every place/remove. */
+    private long pieceKey;
+    /** Zobrist key of the pawns alone, for pawn-structure caches. */
+    private long pawnKey;
+    /** Material plus piece-square bonus per color, kept up to date like pieceKey. */
+    private final int[] pieceSquareScore = new int[2];
+    private final int[] endgamePieceSquareScore = new int[2];
+    /** Sum of {@link PieceSquareTables#phaseWeight} over all pieces. */
+    private int phase;
+    /** Not carried over by {@link #copy()}. */
+    private PieceListener pieceListener;
+    private Position lastMoveFrom;
+    private Position lastMoveTo;
+    private Move lastMove;
+    /** En passant target square (see {@link Bitboards}), or -1 when there is none. */
+    private int enPassantSquare = -1;
+
+    private MoveUndo[] undoStack = new MoveUndo[32];
+    private int undoSize;
+    private final MoveUndo scratchUndo = new MoveUndo();
+
+    public Board() {
+        initialize();
+    }
+
+    /**
+     * Empty board without pieces; used by {@link #copy()} to skip {@link #initialize()}.
+     */
+    private Board(boolean empty) {
+    }
+
+    /**
+     * Standard starting position.
+     */
+    public void initialize() {
+        clear();
+
+        placePiece(Bitboards.square(7, 0), new Rook(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 1), new Knight(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 2), new Bishop(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 3), new Queen(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 4), new King(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 5), new Bishop(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 6), new Knight(PieceColor.WHITE));
+        placePiece(Bitboards.square(7, 7), new Rook(PieceColor.WHITE));
+        for (int c = 0; c < 8; c++)
+            placePiece(Bitboards.square(6, c), new Pawn(PieceColor.WHITE));
+
+        placePiece(Bitboards.square(0, 0), new Rook(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 1), new Knight(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 2), new Bishop(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 3), new Queen(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 4), new King(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 5), new Bishop(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 6), new Knight(PieceColor.BLACK));
+        placePiece(Bitboards.square(0, 7), new Rook(PieceColor.BLACK));
+        for (int c = 0; c < 8; c++)
+            placePiece(Bitboards.square(1, c), new Pawn(PieceColor.BLACK));
+    }
+
+    public Piece getPieceAt(Position pos) {
+        if (pos == null || !pos.isValid())
+            return null;
+        return squares[Bitboards.square(pos)];
+    }
+
+    /**
+     * Piece on a square index (see {@link Bitboards}), or null when empty.
+     */
+    public Piece getPieceAt(int square) {
+        return squares[square];
+    }
+
+    public void setPieceAt(Position pos, Piece piece) {
+        if (pos.isValid()) {
+            int sq = Bitboards.square(pos);
+            removePiece(sq);
+            if (piece != null) {
+                placePiece(sq, piece);
+            }
+        }
+    }
+
+    /**
+     * Squares holding pieces of the given color and type.
+     */
+    public long getPieces(PieceColor color, PieceType type) {
+        return pieceSets[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * Squares holding any piece of the given color.
+     */
+    public long getOccupancy(PieceColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * Squares holding any piece.
+     */
+    public long getOccupancy() {
+        return occupied;
+    }
+
+    private void placePiece(int sq, Piece piece) {
+        long bit = Bitboards.bit(sq);
+        squares[sq] = piece;
+        pieceSets[Bitboards.pieceIndex(piece.getColor(), piece.getType())] |= bit;
+        colorOccupancy[piece.getColor().ordinal()] |= bit;
+        occupied |= bit;
+        pieceKey ^= Zobrist.piece(piece, sq);
+        if (piece.getType() == PieceType.PAWN) {
+            pawnKey ^= Zobrist.piece(piece, sq);
+        }
+        pieceSquareScore[piece.getColor().ordinal()] += PieceSquareTables.value(piece, sq);
+        endgamePieceSquareScore[piece.getColor().ordinal()] += PieceSquareTables.endgameValue(piece, sq);
+        phase += PieceSquareTables.phaseWeight(piece.getType());
+        if (pieceListener != null) {
+            pieceListener.piecePlaced(piece, sq);
+        }
+    }
+
+    private Piece removePiece(int sq) {
+        Piece piece = squares[sq];
+        if (piece == null)
+            return null;
+        long mask = ~Bitboards.bit(sq);
+        squares[sq] = null;
+        pieceSets[Bitboards.pieceIndex(piece.getColor(), piece.getType())] &= mask;
+        colorOccupancy[piece.getColor().ordinal()] &= mask;
+        occupied &= mask;
+        pieceKey ^= Zobrist.piece(piece, sq);
+        if (piece.getType() == PieceType.PAWN) {
+            pawnKey ^= Zobrist.piece(piece, sq);
+        }
+        pieceSquareScore[piece.getColor().ordinal()] -= PieceSquareTables.value(piece, sq);
+        endgamePieceSquareScore[piece.getColor().ordinal()] -= PieceSquareTables.endgameValue(piece, sq);
+        phase -= PieceSquareTables.phaseWeight(piece.getType());
+        if (pieceListener != null) {
+            pieceListener.pieceRemoved(piece, sq);
+        }
+        return piece;
+    }
+
+    /**
+     * Apply move to this board (mutates). Handles pawn promotion.
+     */
+    public Piece movePiece(Move move) {
+        if (!applyMove(move, scratchUndo))
+            return null;
+        return scratchUndo.captured;
+    }
+
+    /**
+     * Apply move to this board and remember how to take it back with {@link #unmakeMove()}.
+     * Handles castling, en passant and promotion the same way as {@link #movePiece(Move)}.
+     *
+     * @return false (and nothing is pushed) when there is no piece on the origin square
+     */
+    public boolean makeMove(Move move) {
+        MoveUndo undo = nextUndo();
+        if (!applyMove(move, undo))
+            return false;
+        undoSize++;
+        return true;
+    }
+
+    /**
+     * Apply a {@link PackedMove} and push its undo record. Unlike {@link #makeMove(Move)}
+     * this does not update the last-move fields used for highlighting, and it allocates
+     * nothing except the new piece on promotions.
+     */
+    public boolean makeMove(int move) {
+        MoveUndo undo = nextUndo();
+        PieceType promotion = PackedMove.promotionType(move);
+        if (!applyMove(PackedMove.from(move), PackedMove.to(move), null, promotion, undo))
+            return false;
+        undoSize++;
+        return true;
+    }
+
+    private MoveUndo nextUndo() {
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+        }
+        MoveUndo undo = undoStack[undoSize];
+        if (undo == null) {
+            undo = new MoveUndo();
+            undoStack[undoSize] = undo;
+        }
+        return undo;
+    }
+
+    /**
+     * Take back the last move applied with {@link #makeMove(Move)} or {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        if (undoSize == 0)
+            return;
+        MoveUndo undo = undoStack[--undoSize];
+
+        removePiece(undo.to);
+        placePiece(undo.from, undo.moved);
+        setHasMoved(undo.moved, undo.movedHadMoved);
+
+        if (undo.rookFrom >= 0) {
+            Piece rook = removePiece(undo.rookTo);
+            if (rook != null) {
+                placePiece(undo.rookFrom, rook);
+                setHasMoved(rook, undo.rookHadMoved);
+            }
+        }
+
+        if (undo.captured != null) {
+            placePiece(undo.capturedSquare, undo.captured);
+        }
+
+        enPassantSquare = undo.enPassantBefore;
+        lastMove = undo.lastMoveBefore;
+        lastMoveFrom = undo.lastMoveFromBefore;
+        lastMoveTo = undo.lastMoveToBefore;
+        undo.reset();
+    }
+
+    private boolean applyMove(Move move, MoveUndo undo) {
+        if (!applyMove(Bitboards.square(move.getFrom()), Bitboards.square(move.getTo()), move.getPromotion(), null,
+                undo))
+            return false;
+        lastMove = move;
+        lastMoveFrom = move.getFrom();
+        lastMoveTo = move.getTo();
+        return true;
+    }
+
+    /**
+     * Core move application on square indices. The promotion piece is taken from
+     * {@code promotionPiece} when given, otherwise created from {@code promotionType}
+     * (queen when both are null).
+     */
+    private boolean applyMove(int from, int to, Piece promotionPiece, PieceType promotionType, MoveUndo undo) {
+        Piece p = squares[from];
+        if (p == null)
+            return false;
+
+        undo.reset();
+        undo.from = from;
+        undo.to = to;
+        undo.moved = p;
+        undo.movedHadMoved = hasMoved(p);
+        undo.enPassantBefore = enPassantSquare;
+        undo.lastMoveBefore = lastMove;
+        undo.lastMoveFromBefore = lastMoveFrom;
+        undo.lastMoveToBefore = lastMoveTo;
+
+        int fromRow = Bitboards.row(from);
+        int toRow = Bitboards.row(to);
+        int previousEnPassantSquare = enPassantSquare;
+
+        enPassantSquare = -1;
+
+        if (p.getType() == PieceType.PAWN && Math.abs(toRow - fromRow) == 2) {
+
+            enPassantSquare = (from + to) / 2;
+        }
+
+        if (p.getType() == PieceType.PAWN && previousEnPassantSquare >= 0 && to == previousEnPassantSquare) {
+
+            undo.capturedSquare = p.getColor() == PieceColor.WHITE ? to + 8 : to - 8;
+        } else {
+
+            undo.capturedSquare = to;
+        }
+        undo.captured = removePiece(undo.capturedSquare);
+
+        if (p.getType() == PieceType.KING) {
+            if (fromRow == toRow && Math.abs(Bitboards.col(from) - Bitboards.col(to)) == 2) {
+                handleCastling(from, to, undo);
+            }
+        }
+
+        removePiece(from);
+        placePiece(to, p);
+        setHasMoved(p, true);
+
+        if (p.getType() == PieceType.PAWN) {
+            if ((p.getColor() == PieceColor.WHITE && toRow == 0) ||
+                    (p.getColor() == PieceColor.BLACK && toRow == 7)) {
+
+                Piece promoted = promotionPiece != null ? promotionPiece
+                        : PackedMove.createPiece(promotionType != null ? promotionType : PieceType.QUEEN,
+                                p.getColor());
+                removePiece(to);
+                placePiece(to, promoted);
+            }
+        }
+
+        return true;
+    }
+
+    private void handleCastling(int kingFrom, int kingTo, MoveUndo undo) {
+        boolean kingSide = kingTo > kingFrom;
+        int rookFrom = kingSide ? kingFrom + 3 : kingFrom - 4;
+        Piece rook = squares[rookFrom];
+        if (rook != null) {
+            undo.rookFrom = rookFrom;
+            undo.rookTo = kingSide ? kingFrom + 1 : kingFrom - 1;
+            undo.rookHadMoved = hasMoved(rook);
+            removePiece(rookFrom);
+            placePiece(undo.rookTo, rook);
+            setHasMoved(rook, true);
+        }
+    }
+
+    private static boolean hasMoved(Piece p) {
+        if (p instanceof King)
+            return ((King) p).hasMovedFromStart();
+        if (p instanceof Rook)
+            return ((Rook) p).hasMovedFromStart();
+        return false;
+    }
+
+    private static void setHasMoved(Piece p, boolean moved) {
+        if (p instanceof King) {
+            ((King) p).setHasMoved(moved);
+        } else if (p instanceof Rook) {
+            ((Rook) p).setHasMoved(moved);
+        }
+    }
+
+    /**
+     * Retorna todos los movimientos **legales** para el color dado (filtra movimientos que dejan
+     * al rey en jaque).
+     */
+    public List<Move> getAllPossibleMoves(PieceColor color) {
+        return MoveGenerator.legalMoves(this, color);
+    }
+
+    /**
+     * Retorna todos los movimientos **legales** para una pieza específica en una posición.
+     */
+    public List<Move> getPossibleMovesForPiece(Position position) {
+        Piece piece = getPieceAt(position);
+        if (piece == null)
+            return new ArrayList<>();
+
+        return MoveGenerator.legalMoves(this, piece.getColor(), Bitboards.bit(Bitboards.square(position)));
+    }
+
+    /**
+     * Check if given color's king is in check.
+     */
+    public boolean isKingInCheck(PieceColor color) {
+        long king = getPieces(color, PieceType.KING);
+        if (king == 0)
+            return false;
+        return isSquareAttacked(Bitboards.firstSquare(king), color.opposite());
+    }
+
+    /**
+     * Whether any piece of {@code attackerColor} attacks {@code square}. Works outward
+     * from the target square using the precomputed tables in {@link Attacks}, so it
+     * neither generates moves nor allocates.
+     */
+    public boolean isSquareAttacked(int square, PieceColor attackerColor) {
+        if ((Attacks.pawn(attackerColor.opposite(), square) & getPieces(attackerColor, PieceType.PAWN)) != 0)
+            return true;
+        if ((Attacks.knight(square) & getPieces(attackerColor, PieceType.KNIGHT)) != 0)
+            return true;
+        if ((Attacks.king(square) & getPieces(attackerColor, PieceType.KING)) != 0)
+            return true;
+        long queens = getPieces(attackerColor, PieceType.QUEEN);
+        long diagonal = getPieces(attackerColor, PieceType.BISHOP) | queens;
+        if (diagonal != 0 && (Attacks.bishop(square, occupied) & diagonal) != 0)
+            return true;
+        long straight = getPieces(attackerColor, PieceType.ROOK) | queens;
+        return straight != 0 && (Attacks.rook(square, occupied) & straight) != 0;
+    }
+
+    /**
+     * Check if given color is in checkmate.
+     */
+    public boolean isCheckmate(PieceColor color) {
+        return isKingInCheck(color) && getAllPossibleMoves(color).isEmpty();
+    }
+
+    /**
+     * Check if given color is in stalemate.
+     */
+    public boolean isStalemate(PieceColor color) {
+        return !isKingInCheck(color) && getAllPossibleMoves(color).isEmpty();
+    }
+
+    /**
+     * Check if the game is drawn by insufficient material.
+     */
+    public boolean isInsufficientMaterial() {
+        long white = getOccupancy(PieceColor.WHITE);
+        long black = getOccupancy(PieceColor.BLACK);
+        int whitePieceCount = Bitboards.count(white);
+        int blackPieceCount = Bitboards.count(black);
+        boolean whiteHasNonKing = (white & ~getPieces(PieceColor.WHITE, PieceType.KING)) != 0;
+        boolean blackHasNonKing = (black & ~getPieces(PieceColor.BLACK, PieceType.KING)) != 0;
+        long minors = getPieces(PieceColor.WHITE, PieceType.BISHOP) | getPieces(PieceColor.WHITE, PieceType.KNIGHT)
+                | getPieces(PieceColor.BLACK, PieceType.BISHOP) | getPieces(PieceColor.BLACK, PieceType.KNIGHT);
+        boolean hasBishopOrKnight = minors != 0;
+
+        if (whitePieceCount == 1 && blackPieceCount == 1)
+            return true;
+
+        if ((whitePieceCount == 2 && !whiteHasNonKing && hasBishopOrKnight) ||
+                (blackPieceCount == 2 && !blackHasNonKing && hasBishopOrKnight)) {
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Undo the last move (requires tracking moves history).
+     * Simplified version - you might want to implement proper move history.
+     */
+    public boolean undoLastMove() {
+        if (lastMove == null)
+            return false;
+
+        initialize();
+        return true;
+    }
+
+    /**
+     * Produce a deep copy of this board (pieces are new instances of same
+     * type/color).
+     */
+    public Board copy() {
+        Board b = new Board(true);
+
+        for (long bb = occupied; bb != 0; bb &= bb - 1) {
+            int sq = Bitboards.firstSquare(bb);
+            Piece p = this.squares[sq];
+            PieceColor col = p.getColor();
+            PieceType t = p.getType();
+            Piece newP = null;
+            switch (t) {
+                case KING:
+                    newP = new King(col);
+                    if (p instanceof King) {
+                        ((King) newP).setHasMoved(((King) p).hasMovedFromStart());
+                    }
+                    break;
+                case QUEEN:
+                    newP = new Queen(col);
+                    break;
+                case ROOK:
+                    newP = new Rook(col);
+                    if (p instanceof Rook) {
+                        ((Rook) newP).setHasMoved(((Rook) p).hasMovedFromStart());
+                    }
+                    break;
+                case BISHOP:
+                    newP = new Bishop(col);
+                    break;
+                case KNIGHT:
+                    newP = new Knight(col);
+                    break;
+                case PAWN:
+                    newP = new Pawn(col);
+                    break;
+            }
+            b.placePiece(sq, newP);
+        }
+        b.lastMove = this.lastMove;
+        b.lastMoveFrom = this.lastMoveFrom;
+        b.lastMoveTo = this.lastMoveTo;
+        b.enPassantSquare = this.enPassantSquare;
+        return b;
+    }
+
+    /**
+     * Utility: find piece positions (used by GUI)
+     */
+    public Piece[][] getGridCopyForDisplay() {
+        Piece[][] out = new Piece[8][8];
+        for (int sq = 0; sq < 64; sq++)
+            out[Bitboards.row(sq)][Bitboards.col(sq)] = squares[sq];
+        return out;
+    }
+
+    /**
+     * Get last move information (for highlighting)
+     */
+    public Move getLastMove() {
+        return lastMove;
+    }
+
+    public Position getLastMoveFrom() {
+        return lastMoveFrom;
+    }
+
+    public Position getLastMoveTo() {
+        return lastMoveTo;
+    }
+
+    public Position getEnPassantTarget() {
+        return enPassantSquare >= 0 ? Bitboards.toPosition(enPassantSquare) : null;
+    }
+
+    /**
+     * En passant target as a square index, or -1 when there is none.
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Sets the move reported by {@link #getLastMove()} (used by history undo/redo).
+     */
+    public void setLastMove(Move move) {
+        lastMove = move;
+        lastMoveFrom = move != null ? move.getFrom() : null;
+        lastMoveTo = move != null ? move.getTo() : null;
+    }
+
+    /**
+     * Replaces the position with the one of {@code source}: its pieces, which are taken
+     * over rather than copied, its en passant target and its last move. Used to jump to
+     * a position restored from history; {@code source} must not be used afterwards.
+     */
+    public void setPosition(Board source) {
+        clear();
+        for (long bb = source.occupied; bb != 0; bb &= bb - 1) {
+            int sq = Bitboards.firstSquare(bb);
+            placePiece(sq, source.squares[sq]);
+        }
+        lastMove = source.lastMove;
+        lastMoveFrom = source.lastMoveFrom;
+        lastMoveTo = source.lastMoveTo;
+        enPassantSquare = source.enPassantSquare;
+    }
+
+    /**
+     * Sets en passant target square (used by history undo/redo).
+     */
+    public void setEnPassantTarget(Position target) {
+        this.enPassantSquare = target != null && target.isValid() ? Bitboards.square(target) : -1;
+    }
+
+    /**
+     * Check if a position is under attack by the given color
+     */
+    public boolean isSquareUnderAttack(Position position, PieceColor attackerColor) {
+        if (position == null || !position.isValid()) {
+            return false;
+        }
+        return isSquareAttacked(Bitboards.square(position), attackerColor);
+    }
+
+    /**
+     * Get all pieces of a specific color
+     */
+    public List<Position> getPiecePositions(PieceColor color) {
+        List<Position> positions = new ArrayList<>();
+        for (long bb = getOccupancy(color); bb != 0; bb &= bb - 1) {
+            positions.add(Bitboards.toPosition(Bitboards.firstSquare(bb)));
+        }
+        return positions;
+    }
+
+    /**
+     * Check if the move is a capture move
+     */
+    public boolean isCaptureMove(Move move) {
+        Piece targetPiece = getPieceAt(move.getTo());
+        if (targetPiece != null)
+            return true;
+
+        if (enPassantSquare >= 0 && Bitboards.square(move.getTo()) == enPassantSquare) {
+            Piece movingPiece = getPieceAt(move.getFrom());
+            if (movingPiece != null && movingPiece.getType() == PieceType.PAWN) {
+
+                Position capturedPawnPos = new Position(
+                        movingPiece.getColor() == PieceColor.WHITE ? move.getTo().getRow() + 1
+                                : move.getTo().getRow() - 1,
+                        move.getTo().getCol());
+                Piece adjacentPawn = getPieceAt(capturedPawnPos);
+                return adjacentPawn != null && adjacentPawn.getType() == PieceType.PAWN &&
+                        adjacentPawn.getColor() != movingPiece.getColor();
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Material plus piece-square bonuses of {@code perspective} minus those of the
+     * opponent (see {@link PieceSquareTables}). Maintained by every move, so this is O(1).
+     */
+    public int getPieceSquareScore(PieceColor perspective) {
+        return pieceSquareScore[perspective.ordinal()] - pieceSquareScore[perspective.opposite().ordinal()];
+    }
+
+    /**
+     * Like {@link #getPieceSquareScore}, with the endgame tables.
+     */
+    public int getEndgamePieceSquareScore(PieceColor perspective) {
+        return endgamePieceSquareScore[perspective.ordinal()]
+                - endgamePieceSquareScore[perspective.opposite().ordinal()];
+    }
+
+    /**
+     * Game phase from {@link PieceSquareTables#TOTAL_PHASE} (all pieces on the board) down
+     * to 0 (kings and pawns only).
+     */
+    public int getGamePhase() {
+        return Math.min(phase, PieceSquareTables.TOTAL_PHASE);
+    }
+
+    public PieceListener getPieceListener() {
+        return pieceListener;
+    }
+
+    /**
+     * Sets the listener (or null) told about every later piece change. Copies of this
+     * board start without one.
+     */
+    public void setPieceListener(PieceListener listener) {
+        this.pieceListener = listener;
+    }
+
+    /**
+     * Zobrist key of the pawn placement alone; equal for positions with the same pawns.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Zobrist key of this position with {@code sideToMove} to play.
+     *
+     * <p>
+     * The piece part is maintained incrementally by every move. Castling rights live in
+     * the king/rook {@code hasMoved} flags, which the UI may also change directly, so they
+     * are read from the four home squares here. The en passant file only counts when a
+     * pawn of {@code sideToMove} can capture there, so positions that differ only by an
+     * unusable en passant square hash equally.
+     */
+    public long getZobristKey(PieceColor sideToMove) {
+        long key = pieceKey ^ Zobrist.castling(getCastlingRights()) ^ Zobrist.sideToMove(sideToMove);
+        if (enPassantSquare >= 0
+                && (Attacks.pawn(sideToMove.opposite(), enPassantSquare)
+                        & pieceSets[Bitboards.pieceIndex(sideToMove, PieceType.PAWN)]) != 0) {
+            key ^= Zobrist.enPassantFile(Bitboards.col(enPassantSquare));
+        }
+        return key;
+    }
+
+    /**
+     * Castling rights as a mask of the {@code Zobrist.*_SIDE} constants: the king is
+     * unmoved on its home square and so is the rook in that corner.
+     */
+    public int getCastlingRights() {
+        int rights = 0;
+        if (isUnmovedKing(Bitboards.square(7, 4), PieceColor.WHITE)) {
+            if (isUnmovedRook(Bitboards.square(7, 7), PieceColor.WHITE))
+                rights |= Zobrist.WHITE_KING_SIDE;
+            if (isUnmovedRook(Bitboards.square(7, 0), PieceColor.WHITE))
+                rights |= Zobrist.WHITE_QUEEN_SIDE;
+        }
+        if (isUnmovedKing(Bitboards.square(0, 4), PieceColor.BLACK)) {
+            if (isUnmovedRook(Bitboards.square(0, 7), PieceColor.BLACK))
+                rights |= Zobrist.BLACK_KING_SIDE;
+            if (isUnmovedRook(Bitboards.square(0, 0), PieceColor.BLACK))
+                rights |= Zobrist.BLACK_QUEEN_SIDE;
+        }
+        return rights;
+    }
+
+    private boolean isUnmovedKing(int sq, PieceColor color) {
+        Piece p = squares[sq];
+        return p instanceof King && p.getColor() == color && !((King) p).hasMovedFromStart();
+    }
+
+    private boolean isUnmovedRook(int sq, PieceColor color) {
+        Piece p = squares[sq];
+        return p instanceof Rook && p.getColor() == color && !((Rook) p).hasMovedFromStart();
+    }
+
+    /**
+     * Clear the board (for testing/reset)
+     */
+    public void clear() {
+        if (pieceListener != null) {
+            for (long bb = occupied; bb != 0; bb &= bb - 1) {
+                int sq = Bitboards.firstSquare(bb);
+                pieceListener.pieceRemoved(squares[sq], sq);
+            }
+        }
+        Arrays.fill(squares, null);
+        Arrays.fill(pieceSets, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupied = 0L;
+        pieceKey = 0L;
+        pawnKey = 0L;
+        Arrays.fill(pieceSquareScore, 0);
+        Arrays.fill(endgamePieceSquareScore, 0);
+        phase = 0;
+        undoSize = 0;
+        lastMove = null;
+        lastMoveFrom = null;
+        lastMoveTo = null;
+        enPassantSquare = -1;
+    }
+}
\ No newline at end of file
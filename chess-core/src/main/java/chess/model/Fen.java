@@ -0,0 +1,210 @@
+package chess.model;
+
+import chess.model.pieces.Bishop;
+import chess.model.pieces.King;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Pawn;
+import chess.model.pieces.Queen;
+import chess.model.pieces.Rook;
+
+/**
+ * Forsyth-Edwards Notation support.
+ *
+ * <p>
+ * The board has no castling-rights field: rights are expressed through the
+ * {@code hasMoved} flag of kings and rooks, so parsing marks every king and rook as
+ * moved and then clears the flag for the pieces named by the castling field. The
+ * halfmove and fullmove counters are accepted but ignored.
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Builds the position described by {@code fen}.
+     *
+     * @throws IllegalArgumentException if the placement or castling fields are malformed
+     */
+    public static Board toBoard(String fen) {
+        String[] fields = fields(fen);
+        Board board = new Board();
+        board.clear();
+
+        int row = 0;
+        int col = 0;
+        for (char ch : fields[0].toCharArray()) {
+            if (ch == '/') {
+                row++;
+                col = 0;
+            } else if (ch >= '1' && ch <= '8') {
+                col += ch - '0';
+            } else {
+                if (row > 7 || col > 7)
+                    throw new IllegalArgumentException("Bad piece placement: " + fields[0]);
+                board.setPieceAt(new Position(row, col), createPiece(ch));
+                col++;
+            }
+        }
+
+        String castling = fields.length > 2 ? fields[2] : "-";
+        for (char ch : castling.toCharArray()) {
+            if (ch == '-')
+                continue;
+            int homeRow = Character.isUpperCase(ch) ? 7 : 0;
+            int rookCol;
+            switch (Character.toLowerCase(ch)) {
+                case 'k':
+                    rookCol = 7;
+                    break;
+                case 'q':
+                    rookCol = 0;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bad castling field: " + castling);
+            }
+            Piece king = board.getPieceAt(Bitboards.square(homeRow, 4));
+            Piece rook = board.getPieceAt(Bitboards.square(homeRow, rookCol));
+            if (king instanceof King && rook instanceof Rook) {
+                ((King) king).setHasMoved(false);
+                ((Rook) rook).setHasMoved(false);
+            }
+        }
+
+        String ep = fields.length > 3 ? fields[3] : "-";
+        if (!ep.equals("-")) {
+            board.setEnPassantTarget(Bitboards.toPosition(parseSquare(ep)));
+        }
+        return board;
+    }
+
+    /**
+     * Side to move in {@code fen}; white when the field is missing.
+     */
+    public static PieceColor sideToMove(String fen) {
+        String[] fields = fields(fen);
+        return fields.length > 1 && fields[1].equals("b") ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    /**
+     * FEN for {@code board} with {@code sideToMove} to play. Move counters are written
+     * as {@code 0 1} because the board does not track them.
+     */
+    public static String fromBoard(Board board, PieceColor sideToMove) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                Piece p = board.getPieceAt(Bitboards.square(row, col));
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(symbol(p));
+            }
+            if (empty > 0)
+                sb.append(empty);
+            if (row < 7)
+                sb.append('/');
+        }
+        sb.append(sideToMove == PieceColor.WHITE ? " w " : " b ");
+
+        int length = sb.length();
+        appendCastling(sb, board, PieceColor.WHITE);
+        appendCastling(sb, board, PieceColor.BLACK);
+        if (sb.length() == length)
+            sb.append('-');
+
+        int ep = board.getEnPassantSquare();
+        sb.append(' ');
+        if (ep < 0) {
+            sb.append('-');
+        } else {
+            sb.append((char) ('a' + Bitboards.col(ep))).append((char) ('8' - Bitboards.row(ep)));
+        }
+        return sb.append(" 0 1").toString();
+    }
+
+    private static void appendCastling(StringBuilder sb, Board board, PieceColor color) {
+        int homeRow = color == PieceColor.WHITE ? 7 : 0;
+        Piece king = board.getPieceAt(Bitboards.square(homeRow, 4));
+        if (!(king instanceof King) || king.getColor() != color || ((King) king).hasMovedFromStart())
+            return;
+        if (isUnmovedRook(board.getPieceAt(Bitboards.square(homeRow, 7)), color))
+            sb.append(color == PieceColor.WHITE ? 'K' : 'k');
+        if (isUnmovedRook(board.getPieceAt(Bitboards.square(homeRow, 0)), color))
+            sb.append(color == PieceColor.WHITE ? 'Q' : 'q');
+    }
+
+    private static boolean isUnmovedRook(Piece p, PieceColor color) {
+        return p instanceof Rook && p.getColor() == color && !((Rook) p).hasMovedFromStart();
+    }
+
+    private static String[] fields(String fen) {
+        if (fen == null || fen.trim().isEmpty())
+            throw new IllegalArgumentException("Empty FEN");
+        return fen.trim().split("\\s+");
+    }
+
+    private static int parseSquare(String s) {
+        if (s.length() != 2 || s.charAt(0) < 'a' || s.charAt(0) > 'h' || s.charAt(1) < '1' || s.charAt(1) > '8')
+            throw new IllegalArgumentException("Bad square: " + s);
+        return Bitboards.square('8' - s.charAt(1), s.charAt(0) - 'a');
+    }
+
+    private static Piece createPiece(char ch) {
+        PieceColor color = Character.isUpperCase(ch) ? PieceColor.WHITE : PieceColor.BLACK;
+        switch (Character.toLowerCase(ch)) {
+            case 'k': {
+                King king = new King(color);
+                king.setHasMoved(true);
+                return king;
+            }
+            case 'q':
+                return new Queen(color);
+            case 'r': {
+                Rook rook = new Rook(color);
+                rook.setHasMoved(true);
+                return rook;
+            }
+            case 'b':
+                return new Bishop(color);
+            case 'n':
+                return new Knight(color);
+            case 'p':
+                return new Pawn(color);
+            default:
+                throw new IllegalArgumentException("Bad piece: " + ch);
+        }
+    }
+
+    private static char symbol(Piece p) {
+        char c;
+        switch (p.getType()) {
+            case KING:
+                c = 'k';
+                break;
+            case QUEEN:
+                c = 'q';
+                break;
+            case ROOK:
+                c = 'r';
+                break;
+            case BISHOP:
+                c = 'b';
+                break;
+            case KNIGHT:
+                c = 'n';
+                break;
+            default:
+                c = 'p';
+                break;
+        }
+        return p.getColor() == PieceColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+}
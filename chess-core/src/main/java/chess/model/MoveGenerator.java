@@ -0,0 +1,282 @@
+package chess.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import chess.model.pieces.King;
+import chess.model.pieces.Rook;
+
+/**
+ * Legal move generator working directly on the bitboards of a {@link Board}.
+ *
+ * <p>
+ * Checkers and pinned pieces are computed once per position; every emitted move is
+ * already legal, so no move is applied and no king-safety test runs per candidate:
+ * <ul>
+ * <li>in double check only king moves are generated</li>
+ * <li>in single check non-king moves must capture the checker or block the line</li>
+ * <li>pinned pieces may only move along the line through their king and the pinner</li>
+ * <li>king moves are tested with the king removed from the occupancy, so the king
+ * cannot step back along a checking ray</li>
+ * <li>en passant, which removes two pieces from the capture rank, is verified against
+ * the resulting occupancy (discovered checks along the rank)</li>
+ * </ul>
+ *
+ * Moves are written as {@link PackedMove} values into a caller-owned {@link MoveList};
+ * {@link #legalMoves(Board, PieceColor)} adapts them to {@link Move} objects.
+ */
+public final class MoveGenerator {
+    private MoveGenerator() {
+    }
+
+    public static List<Move> legalMoves(Board board, PieceColor us) {
+        return legalMoves(board, us, Bitboards.ALL);
+    }
+
+    /**
+     * Legal moves of {@code us} whose origin square is in {@code fromMask}.
+     */
+    public static List<Move> legalMoves(Board board, PieceColor us, long fromMask) {
+        MoveList list = new MoveList();
+        generate(board, us, fromMask, list);
+        List<Move> moves = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            moves.add(PackedMove.toMove(list.get(i), us));
+        }
+        return moves;
+    }
+
+    /**
+     * Appends all legal moves of {@code us} to {@code out}.
+     */
+    public static void generate(Board board, PieceColor us, MoveList out) {
+        generate(board, us, Bitboards.ALL, out);
+    }
+
+    /**
+     * Appends the legal moves of {@code us} whose origin square is in {@code fromMask}.
+     */
+    public static void generate(Board board, PieceColor us, long fromMask, MoveList out) {
+        generate(board, us, fromMask, out, false);
+    }
+
+    /**
+     * Appends only the legal captures (en passant included) and promotions of {@code us},
+     * as needed by quiescence search.
+     */
+    public static void generateTactical(Board board, PieceColor us, MoveList out) {
+        generate(board, us, Bitboards.ALL, out, true);
+    }
+
+    private static void generate(Board board, PieceColor us, long fromMask, MoveList out, boolean tacticalOnly) {
+        PieceColor them = us.opposite();
+        long own = board.getOccupancy(us);
+        long enemy = board.getOccupancy(them);
+        long occupied = board.getOccupancy();
+
+        long kingBb = board.getPieces(us, PieceType.KING);
+        int kingSq = kingBb != 0 ? Bitboards.firstSquare(kingBb) : -1;
+
+        long checkers = 0L;
+        long pinned = 0L;
+        if (kingSq >= 0) {
+            checkers = attackersTo(board, kingSq, them, occupied);
+
+            long theirQueens = board.getPieces(them, PieceType.QUEEN);
+            long snipers = (Attacks.rook(kingSq, 0L) & (board.getPieces(them, PieceType.ROOK) | theirQueens))
+                    | (Attacks.bishop(kingSq, 0L) & (board.getPieces(them, PieceType.BISHOP) | theirQueens));
+            for (; snipers != 0; snipers &= snipers - 1) {
+                int sniper = Bitboards.firstSquare(snipers);
+                long between = Attacks.between(kingSq, sniper) & occupied;
+                if (between != 0 && (between & (between - 1)) == 0 && (between & own) != 0) {
+                    pinned |= between;
+                }
+            }
+        }
+
+        if (kingSq >= 0 && (kingBb & fromMask) != 0) {
+            long withoutKing = occupied & ~kingBb;
+            long kingTargets = Attacks.king(kingSq) & (tacticalOnly ? enemy : ~own);
+            for (long targets = kingTargets; targets != 0; targets &= targets - 1) {
+                int to = Bitboards.firstSquare(targets);
+                if (attackersTo(board, to, them, withoutKing) == 0) {
+                    out.add(PackedMove.encode(kingSq, to, (enemy & Bitboards.bit(to)) != 0
+                            ? PackedMove.CAPTURE : PackedMove.QUIET));
+                }
+            }
+            if (checkers == 0 && !tacticalOnly) {
+                addCastling(board, us, kingSq, out);
+            }
+        }
+
+        if ((checkers & (checkers - 1)) != 0) {
+            return;
+        }
+
+        long targetMask = ~own;
+        if (checkers != 0) {
+            targetMask = checkers | Attacks.between(kingSq, Bitboards.firstSquare(checkers));
+        }
+        // Pawn pushes are filtered separately so that promotions survive the tactical mask
+        long pieceTargets = tacticalOnly ? targetMask & enemy : targetMask;
+
+        for (long bb = board.getPieces(us, PieceType.KNIGHT) & ~pinned & fromMask; bb != 0; bb &= bb - 1) {
+            int from = Bitboards.firstSquare(bb);
+            addAll(out, from, Attacks.knight(from) & ~own & pieceTargets, enemy);
+        }
+
+        long queens = board.getPieces(us, PieceType.QUEEN);
+        for (long bb = (board.getPieces(us, PieceType.BISHOP) | queens) & fromMask; bb != 0; bb &= bb - 1) {
+            int from = Bitboards.firstSquare(bb);
+            long targets = Attacks.bishop(from, occupied) & ~own & pieceTargets;
+            addAll(out, from, restrictToPin(from, kingSq, targets, pinned), enemy);
+        }
+        for (long bb = (board.getPieces(us, PieceType.ROOK) | queens) & fromMask; bb != 0; bb &= bb - 1) {
+            int from = Bitboards.firstSquare(bb);
+            long targets = Attacks.rook(from, occupied) & ~own & pieceTargets;
+            addAll(out, from, restrictToPin(from, kingSq, targets, pinned), enemy);
+        }
+
+        addPawnMoves(board, us, fromMask, kingSq, enemy, occupied, targetMask, checkers, pinned, tacticalOnly, out);
+    }
+
+    private static void addPawnMoves(Board board, PieceColor us, long fromMask, int kingSq, long enemy,
+            long occupied, long targetMask, long checkers, long pinned, boolean tacticalOnly, MoveList out) {
+        int forward = us == PieceColor.WHITE ? -8 : 8;
+        int startRow = us == PieceColor.WHITE ? 6 : 1;
+        int promotionRow = us == PieceColor.WHITE ? 0 : 7;
+
+        int epSq = board.getEnPassantSquare();
+        int epCapturedSq = epSq - forward;
+        if (epSq >= 0) {
+            Piece victim = epCapturedSq >= 0 && epCapturedSq < 64 ? board.getPieceAt(epCapturedSq) : null;
+            if (victim == null || victim.getType() != PieceType.PAWN || victim.getColor() == us
+                    || (occupied & Bitboards.bit(epSq)) != 0) {
+                epSq = -1;
+            }
+        }
+
+        for (long bb = board.getPieces(us, PieceType.PAWN) & fromMask; bb != 0; bb &= bb - 1) {
+            int from = Bitboards.firstSquare(bb);
+            long allowed = restrictToPin(from, kingSq, targetMask, pinned);
+
+            int one = from + forward;
+            if (one >= 0 && one < 64 && (occupied & Bitboards.bit(one)) == 0
+                    && (!tacticalOnly || Bitboards.row(one) == promotionRow)) {
+                if ((allowed & Bitboards.bit(one)) != 0) {
+                    addPawnMove(out, from, one, promotionRow, false);
+                }
+                int two = one + forward;
+                if (!tacticalOnly && Bitboards.row(from) == startRow && (occupied & Bitboards.bit(two)) == 0
+                        && (allowed & Bitboards.bit(two)) != 0) {
+                    out.add(PackedMove.encode(from, two, PackedMove.DOUBLE_PUSH));
+                }
+            }
+
+            long attacks = Attacks.pawn(us, from);
+            for (long caps = attacks & enemy & allowed; caps != 0; caps &= caps - 1) {
+                addPawnMove(out, from, Bitboards.firstSquare(caps), promotionRow, true);
+            }
+
+            if (epSq >= 0 && (attacks & Bitboards.bit(epSq)) != 0) {
+                boolean resolvesCheck = checkers == 0
+                        || (targetMask & Bitboards.bit(epSq)) != 0
+                        || (checkers & Bitboards.bit(epCapturedSq)) != 0;
+                if (resolvesCheck && isEnPassantSafe(board, us, kingSq, from, epSq, epCapturedSq, occupied)) {
+                    out.add(PackedMove.encode(from, epSq, PackedMove.EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    /**
+     * En passant clears both the capturing pawn's square and the captured pawn's square,
+     * which can expose the king along the rank; test the resulting occupancy directly.
+     * This also covers a capturing pawn that is pinned.
+     */
+    private static boolean isEnPassantSafe(Board board, PieceColor us, int kingSq, int from, int to, int capturedSq,
+            long occupied) {
+        if (kingSq < 0) {
+            return true;
+        }
+        PieceColor them = us.opposite();
+        long after = (occupied & ~Bitboards.bit(from) & ~Bitboards.bit(capturedSq)) | Bitboards.bit(to);
+        long theirQueens = board.getPieces(them, PieceType.QUEEN);
+        long straight = board.getPieces(them, PieceType.ROOK) | theirQueens;
+        long diagonal = board.getPieces(them, PieceType.BISHOP) | theirQueens;
+        return (Attacks.rook(kingSq, after) & straight) == 0 && (Attacks.bishop(kingSq, after) & diagonal) == 0;
+    }
+
+    private static void addCastling(Board board, PieceColor us, int kingSq, MoveList out) {
+        int row = us == PieceColor.WHITE ? 7 : 0;
+        if (kingSq != Bitboards.square(row, 4)) {
+            return;
+        }
+        Piece king = board.getPieceAt(kingSq);
+        if (!(king instanceof King) || ((King) king).hasMovedFromStart()) {
+            return;
+        }
+        PieceColor them = us.opposite();
+        long occupied = board.getOccupancy();
+
+        if (canCastleWith(board, us, Bitboards.square(row, 7))
+                && (occupied & (Bitboards.bit(Bitboards.square(row, 5)) | Bitboards.bit(Bitboards.square(row, 6)))) == 0
+                && !board.isSquareAttacked(Bitboards.square(row, 5), them)
+                && !board.isSquareAttacked(Bitboards.square(row, 6), them)) {
+            out.add(PackedMove.encode(kingSq, Bitboards.square(row, 6), PackedMove.KING_CASTLE));
+        }
+        if (canCastleWith(board, us, Bitboards.square(row, 0))
+                && (occupied & (Bitboards.bit(Bitboards.square(row, 1)) | Bitboards.bit(Bitboards.square(row, 2))
+                        | Bitboards.bit(Bitboards.square(row, 3)))) == 0
+                && !board.isSquareAttacked(Bitboards.square(row, 2), them)
+                && !board.isSquareAttacked(Bitboards.square(row, 3), them)) {
+            out.add(PackedMove.encode(kingSq, Bitboards.square(row, 2), PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    private static boolean canCastleWith(Board board, PieceColor us, int rookSq) {
+        Piece rook = board.getPieceAt(rookSq);
+        return rook instanceof Rook && rook.getColor() == us && !((Rook) rook).hasMovedFromStart();
+    }
+
+    /**
+     * Pieces of {@code by} attacking {@code square} given the occupancy {@code occupied}.
+     */
+    private static long attackersTo(Board board, int square, PieceColor by, long occupied) {
+        long queens = board.getPieces(by, PieceType.QUEEN);
+        return (Attacks.pawn(by.opposite(), square) & board.getPieces(by, PieceType.PAWN))
+                | (Attacks.knight(square) & board.getPieces(by, PieceType.KNIGHT))
+                | (Attacks.king(square) & board.getPieces(by, PieceType.KING))
+                | (Attacks.bishop(square, occupied) & (board.getPieces(by, PieceType.BISHOP) | queens))
+                | (Attacks.rook(square, occupied) & (board.getPieces(by, PieceType.ROOK) | queens));
+    }
+
+    /**
+     * A pinned piece stays on the line through its king and itself; the pinner sits on
+     * that line too, so capturing it remains possible.
+     */
+    private static long restrictToPin(int from, int kingSq, long targets, long pinned) {
+        if ((pinned & Bitboards.bit(from)) != 0) {
+            return targets & Attacks.line(kingSq, from);
+        }
+        return targets;
+    }
+
+    private static void addAll(MoveList out, int from, long targets, long enemy) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Bitboards.firstSquare(targets);
+            out.add(PackedMove.encode(from, to, (enemy & Bitboards.bit(to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET));
+        }
+    }
+
+    private static void addPawnMove(MoveList out, int from, int to, int promotionRow, boolean capture) {
+        if (Bitboards.row(to) != promotionRow) {
+            out.add(PackedMove.encode(from, to, capture ? PackedMove.CAPTURE : PackedMove.QUIET));
+            return;
+        }
+        out.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.QUEEN, capture)));
+        out.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.ROOK, capture)));
+        out.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.BISHOP, capture)));
+        out.add(PackedMove.encode(from, to, PackedMove.promotionFlags(PieceType.KNIGHT, capture)));
+    }
+}
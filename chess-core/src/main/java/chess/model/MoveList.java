@@ -0,0 +1,67 @@
+package chess.model;
+
+/**
+ * Growable buffer of {@link PackedMove} values.
+ *
+ * <p>
+ * Searches keep one list per ply and {@link #clear()} it before each generation, so
+ * generating moves does not allocate once the buffers exist.
+ */
+public final class MoveList {
+    /** Enough for any legal chess position (the known maximum is 218). */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        this.moves = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public void swap(int i, int j) {
+        int tmp = moves[i];
+        moves[i] = moves[j];
+        moves[j] = tmp;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package chess.model;
+
+/**
+ * State needed by {@link Board#unmakeMove()} to restore the position exactly as it was
+ * before a {@link Board#makeMove(Move)} or {@link Board#makeMove(int)}.
+ *
+ * <p>
+ * Instances are owned by the board's undo stack and reused between moves, so no
+ * allocation happens per make/unmake pair once the stack has grown to the search depth.
+ */
+final class MoveUndo {
+    int from;
+    int to;
+    Piece moved;
+    boolean movedHadMoved;
+
+    Piece captured;
+    int capturedSquare;
+
+    int rookFrom = -1;
+    int rookTo = -1;
+    boolean rookHadMoved;
+
+    int enPassantBefore = -1;
+    Move lastMoveBefore;
+    Position lastMoveFromBefore;
+    Position lastMoveToBefore;
+
+    void reset() {
+        moved = null;
+        movedHadMoved = false;
+        captured = null;
+        capturedSquare = -1;
+        rookFrom = -1;
+        rookTo = -1;
+        rookHadMoved = false;
+        enPassantBefore = -1;
+        lastMoveBefore = null;
+        lastMoveFromBefore = null;
+        lastMoveToBefore = null;
+    }
+}
@@ -0,0 +1,178 @@
+package chess.model;
+
+import chess.model.pieces.Bishop;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Queen;
+import chess.model.pieces.Rook;
+
+/**
+ * 16-bit move encoding used inside move generation and search.
+ *
+ * <pre>
+ *  bits  0-5   origin square (see {@link Bitboards})
+ *  bits  6-11  destination square
+ *  bits 12-15  flags: 0 quiet, 1 double pawn push, 2 king-side castle,
+ *              3 queen-side castle, 4 capture, 5 en passant,
+ *              8-11 promotion to knight/bishop/rook/queen, 12-15 same with capture
+ * </pre>
+ *
+ * The value {@link #NONE} (a8 to a8) never denotes a real move. {@link #toMove} and
+ * {@link #fromMove} convert at the boundary with the UI/history {@link Move} objects.
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN };
+
+    private PackedMove() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /**
+     * Promotion flags for the given piece type, optionally combined with a capture.
+     */
+    public static int promotionFlags(PieceType type, boolean capture) {
+        int index;
+        switch (type) {
+            case KNIGHT:
+                index = 0;
+                break;
+            case BISHOP:
+                index = 1;
+                break;
+            case ROOK:
+                index = 2;
+                break;
+            default:
+                index = 3;
+                break;
+        }
+        return PROMOTION | (capture ? CAPTURE : 0) | index;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flags(move) == EN_PASSANT;
+    }
+
+    /**
+     * Promotion piece type, or null when the move is not a promotion.
+     */
+    public static PieceType promotionType(int move) {
+        if (!isPromotion(move))
+            return null;
+        return PROMOTION_TYPES[flags(move) & 3];
+    }
+
+    /**
+     * Builds the UI/history representation of a packed move made by {@code mover}.
+     */
+    public static Move toMove(int move, PieceColor mover) {
+        Position from = Bitboards.toPosition(from(move));
+        Position to = Bitboards.toPosition(to(move));
+        PieceType promotion = promotionType(move);
+        if (promotion == null)
+            return new Move(from, to);
+        return new Move(from, to, createPiece(promotion, mover));
+    }
+
+    /**
+     * Packs a {@link Move} as it would be played on {@code board} (flags are derived from
+     * the position). Returns {@link #NONE} when the origin square is empty.
+     */
+    public static int fromMove(Board board, Move move) {
+        int from = Bitboards.square(move.getFrom());
+        int to = Bitboards.square(move.getTo());
+        Piece mover = board.getPieceAt(from);
+        if (mover == null)
+            return NONE;
+        boolean capture = board.getPieceAt(to) != null;
+
+        if (mover.getType() == PieceType.PAWN) {
+            int promotionRow = mover.getColor() == PieceColor.WHITE ? 0 : 7;
+            if (Bitboards.row(to) == promotionRow) {
+                PieceType type = move.getPromotion() != null ? move.getPromotion().getType() : PieceType.QUEEN;
+                return encode(from, to, promotionFlags(type, capture));
+            }
+            if (!capture && to == board.getEnPassantSquare() && Bitboards.col(from) != Bitboards.col(to))
+                return encode(from, to, EN_PASSANT);
+            if (Math.abs(Bitboards.row(to) - Bitboards.row(from)) == 2)
+                return encode(from, to, DOUBLE_PUSH);
+        }
+        if (mover.getType() == PieceType.KING && Bitboards.row(from) == Bitboards.row(to)
+                && Math.abs(Bitboards.col(to) - Bitboards.col(from)) == 2) {
+            return encode(from, to, Bitboards.col(to) > Bitboards.col(from) ? KING_CASTLE : QUEEN_CASTLE);
+        }
+        return encode(from, to, capture ? CAPTURE : QUIET);
+    }
+
+    /**
+     * Coordinate notation such as {@code e2e4} or {@code e7e8q}.
+     */
+    public static String toUci(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        PieceType promotion = promotionType(move);
+        if (promotion != null) {
+            sb.append(promotion == PieceType.KNIGHT ? 'n'
+                    : promotion == PieceType.BISHOP ? 'b'
+                    : promotion == PieceType.ROOK ? 'r' : 'q');
+        }
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + Bitboards.col(square)));
+        sb.append((char) ('8' - Bitboards.row(square)));
+    }
+
+    static Piece createPiece(PieceType type, PieceColor color) {
+        switch (type) {
+            case ROOK:
+                return new Rook(color);
+            case BISHOP:
+                return new Bishop(color);
+            case KNIGHT:
+                return new Knight(color);
+            default:
+                return new Queen(color);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Move-path enumeration: counts the leaf nodes of the legal move tree to a fixed
+ * depth. The counts for well-known positions are published, so any difference points
+ * at a move generation or make/unmake bug.
+ *
+ * <p>
+ * One instance owns one move list per ply and works on the board in place with
+ * make/unmake; the board is restored when a call returns. Not thread-safe.
+ */
+public final class Perft {
+    private MoveList[] lists = new MoveList[0];
+
+    /**
+     * Number of leaf nodes {@code depth} plies below the current position.
+     */
+    public long count(Board board, PieceColor sideToMove, int depth) {
+        if (depth <= 0)
+            return 1;
+        ensureDepth(depth);
+        return search(board, sideToMove, depth);
+    }
+
+    /**
+     * Leaf counts per root move, keyed by coordinate notation in generation order.
+     */
+    public Map<String, Long> divide(Board board, PieceColor sideToMove, int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (depth <= 0)
+            return result;
+        ensureDepth(depth);
+        MoveList roots = new MoveList();
+        MoveGenerator.generate(board, sideToMove, roots);
+        for (int i = 0; i < roots.size(); i++) {
+            int move = roots.get(i);
+            board.makeMove(move);
+            long nodes = depth == 1 ? 1 : search(board, sideToMove.opposite(), depth - 1);
+            board.unmakeMove();
+            result.put(PackedMove.toUci(move), nodes);
+        }
+        return result;
+    }
+
+    private long search(Board board, PieceColor side, int depth) {
+        MoveList moves = lists[depth];
+        moves.clear();
+        MoveGenerator.generate(board, side, moves);
+        if (depth == 1)
+            return moves.size();
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += search(board, side.opposite(), depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private void ensureDepth(int depth) {
+        if (lists.length > depth)
+            return;
+        MoveList[] grown = new MoveList[depth + 1];
+        System.arraycopy(lists, 0, grown, 0, lists.length);
+        for (int i = lists.length; i < grown.length; i++) {
+            grown[i] = new MoveList();
+        }
+        lists = grown;
+    }
+}
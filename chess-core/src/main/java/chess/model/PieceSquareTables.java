@@ -0,0 +1,155 @@
+package chess.model;
+
+/**
+ * Material values and piece-square bonuses, in centipawns.
+ *
+ * <p>
+ * Tables are written from White's side as the board is drawn: the first row is rank 8,
+ * so a table index is the square index used by {@link Board} ({@code row * 8 + col}).
+ * Black reads the same tables vertically mirrored ({@code sq ^ 56}).
+ *
+ * <p>
+ * {@link Board} adds {@link #value} of every piece it places and subtracts it when the
+ * piece is removed, so the total is always available without scanning the board.
+ * The king has no material value: both sides always have one.
+ *
+ * <p>
+ * There are two sets of values, for the middlegame ({@link #value}) and for the
+ * endgame ({@link #endgameValue}); only the king and pawn tables differ. A tapered
+ * evaluation blends them by {@link #phaseWeight}, which adds up to
+ * {@link #TOTAL_PHASE} for the pieces of the starting position.
+ */
+public final class PieceSquareTables {
+    /** Material by PieceType ordinal (KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN). */
+    public static final int[] MATERIAL = { 0, 900, 500, 330, 320, 100 };
+    /** Game phase of a full set of pieces; 0 means only kings and pawns are left. */
+    public static final int TOTAL_PHASE = 24;
+    private static final int[] PHASE = { 0, 4, 2, 1, 1, 0 };
+
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20 };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20 };
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0 };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20 };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50 };
+
+    private static final int[] PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0 };
+
+    /** The king belongs in the centre once the attackers are gone. */
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50 };
+
+    /** Advanced pawns matter more when fewer pieces can stop them. */
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             60,  60,  60,  60,  60,  60,  60,  60,
+             40,  40,  40,  40,  40,  40,  40,  40,
+             25,  25,  25,  25,  25,  25,  25,  25,
+             15,  15,  15,  15,  15,  15,  15,  15,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0 };
+
+    /** Material plus bonus, by {@link Bitboards#pieceIndex} and square. */
+    private static final int[][] VALUES = build(new int[][] { KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN });
+    private static final int[][] ENDGAME_VALUES = build(
+            new int[][] { KING_ENDGAME, QUEEN, ROOK, BISHOP, KNIGHT, PAWN_ENDGAME });
+
+    private static int[][] build(int[][] tables) {
+        int[][] values = new int[12][64];
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                int[] table = tables[type.ordinal()];
+                int[] row = values[Bitboards.pieceIndex(color, type)];
+                for (int sq = 0; sq < 64; sq++) {
+                    int tableSq = color == PieceColor.WHITE ? sq : sq ^ 56;
+                    row[sq] = MATERIAL[type.ordinal()] + table[tableSq];
+                }
+            }
+        }
+        return values;
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * Material plus square bonus of {@code piece} standing on {@code sq}, positive for
+     * its owner.
+     */
+    public static int value(Piece piece, int sq) {
+        return VALUES[Bitboards.pieceIndex(piece.getColor(), piece.getType())][sq];
+    }
+
+    /**
+     * Like {@link #value}, with the endgame tables.
+     */
+    public static int endgameValue(Piece piece, int sq) {
+        return ENDGAME_VALUES[Bitboards.pieceIndex(piece.getColor(), piece.getType())][sq];
+    }
+
+    /**
+     * Contribution of a piece of {@code type} to the game phase.
+     */
+    public static int phaseWeight(PieceType type) {
+        return PHASE[type.ordinal()];
+    }
+}
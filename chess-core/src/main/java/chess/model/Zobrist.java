@@ -0,0 +1,75 @@
+package chess.model;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ *
+ * <p>
+ * A position key is the XOR of one key per (piece, square), the side key when black
+ * is to move, the key of the current castling-rights mask and the key of the en
+ * passant file. The keys come from a fixed-seed generator so they are identical in
+ * every run and can be stored on disk.
+ */
+public final class Zobrist {
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long[] state = { 0x5EED_C0DE_CAFE_F00DL };
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[piece][sq] = next(state);
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = next(state);
+        }
+        CASTLING[0] = 0L;
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = next(state);
+        }
+        BLACK_TO_MOVE = next(state);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    public static long piece(Piece piece, int square) {
+        return PIECE_SQUARE[Bitboards.pieceIndex(piece.getColor(), piece.getType())][square];
+    }
+
+    /**
+     * Key of a castling-rights mask built from the {@code *_SIDE} constants.
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights & 15];
+    }
+
+    public static long enPassantFile(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    public static long sideToMove(PieceColor side) {
+        return side == PieceColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /**
+     * SplitMix64 step; written out so the sequence never depends on the JDK.
+     */
+    private static long next(long[] state) {
+        long z = (state[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -2,12 +2,11 @@ package chess.rules;
 
 import java.util.List;
 
-import chess.game.Game;
 import chess.model.Board;
 import chess.model.Move;
+import chess.model.MoveGenerator;
 import chess.model.Piece;
 import chess.model.PieceColor;
-import chess.view.GameView;
 
 /**
  * Centralized, minimal rules layer.
@@ -21,8 +20,35 @@ public final class RulesEngine {
     private RulesEngine() {
     }
 
+    /**
+     * What the rules layer needs from a game in progress. Implemented by
+     * {@code chess.game.Game}, which lives outside the core module.
+     */
+    public interface Game {
+        Board getBoard();
+
+        PieceColor getTurn();
+
+        boolean isGameOver();
+
+        String getGameResult();
+
+        boolean hasThreefoldRepetition();
+
+        /**
+         * Applies {@code move} for the side to move; false when it was not legal.
+         */
+        boolean applyMove(Move move);
+
+        Piece getLastCapturedPiece();
+    }
+
+    /**
+     * Legal moves for {@code color}, produced by the pin- and check-aware
+     * {@link MoveGenerator} (no per-move king-safety test).
+     */
     public static List<Move> legalMoves(Board board, PieceColor color) {
-        return board.getAllPossibleMoves(color);
+        return MoveGenerator.legalMoves(board, color);
     }
 
     /**
@@ -50,17 +76,23 @@ public final class RulesEngine {
      * Note: if {@code isAIVsAI} is {@code true}, it takes precedence and the result is {@code 3}.
      */
     public static int getGameModeNumber(boolean isPlayerVsPlayer, boolean isAIVsAI) {
-        return GameView.getGameModeNumber(isPlayerVsPlayer, isAIVsAI);
+        if (isAIVsAI) {
+            return 3;
+        }
+        if (isPlayerVsPlayer) {
+            return 1;
+        }
+        return 2;
     }
 
     /**
      * Creates a {@link MoveResult} snapshot from the current game state.
      * <p>
      * This is useful for modes where moves may be applied without going through
-     * {@link #applyMove(chess.game.Game, chess.model.Move)} (e.g. AI vs AI match
+     * {@link #applyMove(Game, chess.model.Move)} (e.g. AI vs AI match
      * driver), but the UI still needs a unified representation of terminal state.
      */
-    public static MoveResult currentGameState(chess.game.Game game) {
+    public static MoveResult currentGameState(Game game) {
         if (game == null) {
             return MoveResult.notApplied(null, null);
         }
@@ -0,0 +1,170 @@
+package chess.util;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage for the stores: callers record what they want saved and return at
+ * once; a single background thread writes it and forces it to disk in batches.
+ *
+ * <p>
+ * The queue holds each {@link Target} at most once, so a burst of saves of the same
+ * store (a fast AI-vs-AI game) becomes one write of its latest state. The queue is
+ * bounded; a caller only waits when that many distinct targets are pending. Written
+ * targets are synced every {@code syncIntervalMillis}, or right after their write when
+ * {@link #requestSync} asks for it (game end, closing a file).
+ */
+public final class PersistenceWriter {
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Something saved through the writer. Both methods run on the writer thread only.
+     */
+    public interface Target {
+        /** Writes everything requested since the previous call. */
+        void writePending() throws IOException;
+
+        /** Forces what was written to the storage device. */
+        void sync() throws IOException;
+    }
+
+    private static PersistenceWriter instance;
+
+    private final BlockingQueue<Target> queue;
+    private final Set<Target> queued = ConcurrentHashMap.newKeySet();
+    private final Set<Target> syncRequested = ConcurrentHashMap.newKeySet();
+    /** Written but not yet synced; writer thread only. */
+    private final Set<Target> dirty = new LinkedHashSet<>();
+    private volatile long syncIntervalMillis;
+    private long lastSync = System.currentTimeMillis();
+
+    public PersistenceWriter(int capacity, long syncIntervalMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.syncIntervalMillis = syncIntervalMillis;
+        Thread thread = new Thread(this::run, "persistence-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writer shared by the whole application.
+     */
+    public static synchronized PersistenceWriter getInstance() {
+        if (instance == null) {
+            instance = new PersistenceWriter(DEFAULT_CAPACITY, DEFAULT_SYNC_INTERVAL_MILLIS);
+        }
+        return instance;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    public void setSyncIntervalMillis(long syncIntervalMillis) {
+        this.syncIntervalMillis = Math.max(0, syncIntervalMillis);
+    }
+
+    /**
+     * Schedules {@code target.writePending()}; nothing is added when it is already
+     * waiting.
+     */
+    public void submit(Target target) {
+        if (!queued.add(target)) {
+            return;
+        }
+        try {
+            queue.put(target);
+        } catch (InterruptedException e) {
+            queued.remove(target);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules a write of {@code target} followed at once by a sync.
+     */
+    public void requestSync(Target target) {
+        syncRequested.add(target);
+        submit(target);
+    }
+
+    /**
+     * Blocks until everything submitted before this call is written and synced. Call it
+     * before exiting; the writer thread is a daemon and dies with the JVM.
+     */
+    public void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        submit(new Target() {
+            @Override
+            public void writePending() {
+                syncAll();
+                done.countDown();
+            }
+
+            @Override
+            public void sync() {
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Target target;
+            try {
+                long wait = dirty.isEmpty() ? Long.MAX_VALUE
+                        : Math.max(0, lastSync + syncIntervalMillis - System.currentTimeMillis());
+                target = queue.poll(wait, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (target != null) {
+                // Removed before writing, so a save requested meanwhile queues it again
+                queued.remove(target);
+                write(target);
+            }
+            if (!dirty.isEmpty() && System.currentTimeMillis() - lastSync >= syncIntervalMillis) {
+                syncAll();
+            }
+        }
+    }
+
+    private void write(Target target) {
+        try {
+            target.writePending();
+            dirty.add(target);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al guardar en segundo plano: " + e.getMessage());
+        }
+        if (syncRequested.remove(target)) {
+            sync(target);
+        }
+    }
+
+    private void syncAll() {
+        for (Target target : dirty.toArray(new Target[0])) {
+            sync(target);
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void sync(Target target) {
+        dirty.remove(target);
+        try {
+            target.sync();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al sincronizar con el disco: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package chess.history;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chess.model.Board;
+import chess.util.PersistenceWriter;
+
+class GameArchiveTest {
+    /** File header length, the same for the three files. */
+    private static final int HEADER_BYTES = 16;
+    private static final int GAME_BYTES = 32;
+
+    @TempDir
+    Path dir;
+
+    private PersistenceWriter writer;
+    /** Steps of every game added, by game number. */
+    private final List<List<Step>> added = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        writer = new PersistenceWriter(PersistenceWriter.DEFAULT_CAPACITY, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.flush();
+    }
+
+    @Test
+    void gamesAreReadBackAfterReopen() {
+        GameArchive archive = archive();
+        for (int i = 0; i < 5; i++) {
+            add(archive, GameFixture.game(20 + i * 7, i),
+                    i % 2 == 0 ? GameArchive.Outcome.DRAW : GameArchive.Outcome.WHITE_WINS);
+        }
+        writer.flush();
+
+        GameArchive reopened = archive();
+        assertEquals(5, reopened.getGameCount());
+        for (int game = 0; game < 5; game++) {
+            List<Step> steps = added.get(game);
+            GameArchive.GameEntry entry = reopened.getGame(game);
+            assertEquals(steps.size(), entry.getPlyCount());
+            assertEquals(GameMetadata.GameMode.PVAI, entry.getMode());
+            assertEquals(game % 2 == 0 ? GameArchive.Outcome.DRAW : GameArchive.Outcome.WHITE_WINS,
+                    entry.getOutcome());
+            assertEquals(GameFixture.key(steps, steps.size()), entry.getFinalPositionKey());
+
+            List<Step> loaded = reopened.loadGame(game);
+            assertEquals(steps.size(), loaded.size());
+            for (int ply = 0; ply < steps.size(); ply++) {
+                assertArrayEquals(GameFixture.encode(steps.get(ply)), GameFixture.encode(loaded.get(ply)));
+                assertArrayEquals(GameFixture.encode(steps.get(ply)),
+                        GameFixture.encode(reopened.getStep(game, ply)));
+            }
+            assertNull(reopened.getStep(game, steps.size()));
+        }
+        assertNull(reopened.getGame(5));
+    }
+
+    @Test
+    void findPositionMatchesEveryVisitAcrossIndexMerges() {
+        GameArchive archive = archive();
+        // Enough plies to merge the unsorted tail once, then a few games left in it
+        for (int i = 0; i < 90; i++) {
+            add(archive, GameFixture.game(40 + i % 40, 100 + i), GameArchive.Outcome.UNKNOWN);
+        }
+        writer.flush();
+        assertFindsEveryVisit(archive);
+        assertFindsEveryVisit(archive());
+    }
+
+    @Test
+    void interruptedMergeRebuildsTheIndex() throws IOException {
+        GameArchive archive = archive();
+        for (int i = 0; i < 12; i++) {
+            add(archive, GameFixture.game(30 + i, 200 + i), GameArchive.Outcome.DRAW);
+        }
+        writer.flush();
+        // Marks the sorted count as being rewritten, as a merge does before its writes
+        try (RandomAccessFile raf = new RandomAccessFile(file("positions.bin"), "rw")) {
+            raf.seek(8);
+            raf.writeLong(-1);
+            raf.setLength(raf.length() - 24);
+        }
+
+        GameArchive reopened = archive();
+        assertEquals(12, reopened.getGameCount());
+        assertFindsEveryVisit(reopened);
+    }
+
+    @Test
+    void tornGameIsDroppedWithItsIndexEntries() throws IOException {
+        GameArchive archive = archive();
+        for (int i = 0; i < 3; i++) {
+            add(archive, GameFixture.game(25 + i * 10, 300 + i), GameArchive.Outcome.BLACK_WINS);
+        }
+        writer.flush();
+        try (RandomAccessFile raf = new RandomAccessFile(file("games.bin"), "rw")) {
+            long offset = HEADER_BYTES + 2L * GAME_BYTES + 20;
+            raf.seek(offset);
+            int value = raf.read();
+            raf.seek(offset);
+            raf.write(value ^ 0x5A);
+        }
+
+        GameArchive reopened = archive();
+        assertEquals(2, reopened.getGameCount());
+        added.remove(2);
+        // The next game takes the number of the dropped one
+        add(reopened, GameFixture.game(33, 303), GameArchive.Outcome.DRAW);
+        writer.flush();
+        assertEquals(3, reopened.getGameCount());
+        assertFindsEveryVisit(reopened);
+        assertFindsEveryVisit(archive());
+    }
+
+    @Test
+    void gameWhoseMovesDidNotReachTheDiskIsDropped() throws IOException {
+        GameArchive archive = archive();
+        for (int i = 0; i < 3; i++) {
+            add(archive, GameFixture.game(25 + i * 10, 500 + i), GameArchive.Outcome.DRAW);
+        }
+        writer.flush();
+        // The last entry is whole, but its moves end three records short
+        try (RandomAccessFile raf = new RandomAccessFile(file("moves.bin"), "rw")) {
+            raf.setLength(raf.length() - 3L * StepRecord.BYTES);
+        }
+
+        GameArchive reopened = archive();
+        assertEquals(2, reopened.getGameCount());
+        assertNull(reopened.getGame(2));
+        added.remove(2);
+        assertFindsEveryVisit(reopened);
+
+        // The game table was cut back too, so the next game lines up with its moves
+        add(reopened, GameFixture.game(31, 503), GameArchive.Outcome.WHITE_WINS);
+        writer.flush();
+        GameArchive again = archive();
+        assertEquals(3, again.getGameCount());
+        List<Step> loaded = again.loadGame(2);
+        assertEquals(added.get(2).size(), loaded.size());
+        for (int ply = 0; ply < loaded.size(); ply++) {
+            assertArrayEquals(GameFixture.encode(added.get(2).get(ply)), GameFixture.encode(loaded.get(ply)));
+        }
+        assertFindsEveryVisit(again);
+    }
+
+    @Test
+    void unknownPositionIsNotFound() {
+        GameArchive archive = archive();
+        add(archive, GameFixture.game(20, 400), GameArchive.Outcome.DRAW);
+        writer.flush();
+        assertTrue(archive.findPosition(0x1234_5678_9ABC_DEF0L).isEmpty());
+    }
+
+    private GameArchive archive() {
+        return new GameArchive(dir.toString(), writer);
+    }
+
+    private void add(GameArchive archive, List<Step> steps, GameArchive.Outcome outcome) {
+        added.add(steps);
+        archive.addGame(steps, GameMetadata.GameMode.PVAI, outcome);
+    }
+
+    private String file(String name) {
+        return dir.resolve(name).toString();
+    }
+
+    /**
+     * Checks {@link GameArchive#findPosition} against a replay of every game added, for
+     * every position they reached.
+     */
+    private void assertFindsEveryVisit(GameArchive archive) {
+        Map<Long, List<String>> visits = new HashMap<>();
+        for (int game = 0; game < added.size(); game++) {
+            List<Step> steps = added.get(game);
+            Board board = new Board();
+            for (int ply = 1; ply <= steps.size(); ply++) {
+                StepRecord.replay(board, steps.get(ply - 1));
+                visits.computeIfAbsent(board.getZobristKey(StepRecord.sideToMove(ply)), k -> new ArrayList<>())
+                        .add(game + ":" + ply);
+            }
+        }
+        for (Map.Entry<Long, List<String>> visit : visits.entrySet()) {
+            List<String> expected = visit.getValue().stream().sorted().collect(Collectors.toList());
+            List<String> found = archive.findPosition(visit.getKey()).stream()
+                    .map(ref -> ref.getGame() + ":" + ref.getPly())
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expected, found, "key " + Long.toHexString(visit.getKey()));
+        }
+    }
+}
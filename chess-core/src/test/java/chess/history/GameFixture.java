@@ -0,0 +1,120 @@
+package chess.history;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.Piece;
+import chess.model.PieceColor;
+import chess.model.PieceType;
+import chess.model.Position;
+import chess.model.pieces.King;
+import chess.model.pieces.Knight;
+import chess.model.pieces.Rook;
+
+/**
+ * Games for the history tests: an opening that castles on both sides, takes en passant
+ * and promotes, followed by random legal moves from a fixed seed.
+ */
+final class GameFixture {
+    private static final String[] OPENING = {
+            "e2e4", "a7a6", "e4e5", "d7d5", "e5d6", "b8c6", "g1f3", "c8g4",
+            "f1e2", "d8d7", "e1g1", "e8c8", "d6c7", "a6a5", "c7d8n" };
+
+    private GameFixture() {
+    }
+
+    /**
+     * Steps of a game of up to {@code plies} moves; shorter when it ends earlier.
+     */
+    static List<Step> game(int plies, long seed) {
+        Board board = new Board();
+        List<Step> steps = new ArrayList<>();
+        for (String uci : OPENING) {
+            if (steps.size() == plies) {
+                return steps;
+            }
+            steps.add(play(board, move(uci, StepRecord.sideToMove(steps.size()))));
+        }
+        Random random = new Random(seed);
+        while (steps.size() < plies) {
+            List<Move> moves = MoveGenerator.legalMoves(board, StepRecord.sideToMove(steps.size()));
+            if (moves.isEmpty()) {
+                break;
+            }
+            steps.add(play(board, moves.get(random.nextInt(moves.size()))));
+        }
+        return steps;
+    }
+
+    /**
+     * Board after the first {@code ply} steps, replayed from the initial position.
+     */
+    static Board replay(List<Step> steps, int ply) {
+        Board board = new Board();
+        for (int i = 0; i < ply; i++) {
+            StepRecord.replay(board, steps.get(i));
+        }
+        return board;
+    }
+
+    static long key(List<Step> steps, int ply) {
+        return replay(steps, ply).getZobristKey(StepRecord.sideToMove(ply));
+    }
+
+    /**
+     * The journal record of {@code step}, for comparing steps by value.
+     */
+    static byte[] encode(Step step) {
+        ByteBuffer out = ByteBuffer.allocate(StepRecord.BYTES);
+        StepRecord.write(step, out);
+        return out.array();
+    }
+
+    /**
+     * Plays {@code move} on {@code board} and describes it the way the game does.
+     */
+    static Step play(Board board, Move move) {
+        Piece mover = board.getPieceAt(move.getFrom());
+        Position enPassantBefore = board.getEnPassantTarget();
+        Boolean moverHadMoved = hasMoved(mover);
+        boolean castling = mover.getType() == PieceType.KING
+                && Math.abs(move.getFrom().getCol() - move.getTo().getCol()) == 2;
+        int row = move.getFrom().getRow();
+        boolean kingside = move.getTo().getCol() > move.getFrom().getCol();
+        Position rookFrom = castling ? new Position(row, kingside ? 7 : 0) : null;
+        Position rookTo = castling ? new Position(row, kingside ? 5 : 3) : null;
+        Boolean rookHadMoved = castling ? hasMoved(board.getPieceAt(rookFrom)) : null;
+
+        Piece captured = board.movePiece(move);
+        Piece moverAfter = board.getPieceAt(move.getTo());
+        boolean enPassant = mover.getType() == PieceType.PAWN && move.getTo().equals(enPassantBefore)
+                && captured != null;
+        boolean promotion = mover.getType() == PieceType.PAWN && moverAfter.getType() != PieceType.PAWN;
+        return new Step(move, mover.getColor(), moverAfter.getType(), move.toString(), captured,
+                castling, rookFrom, rookTo, rookHadMoved,
+                enPassant, enPassant ? new Position(row, move.getTo().getCol()) : null,
+                promotion, promotion ? moverAfter : null, promotion ? mover : null,
+                moverHadMoved, enPassantBefore, board.getEnPassantTarget());
+    }
+
+    private static Boolean hasMoved(Piece piece) {
+        if (piece instanceof King) {
+            return ((King) piece).hasMovedFromStart();
+        }
+        if (piece instanceof Rook) {
+            return ((Rook) piece).hasMovedFromStart();
+        }
+        return null;
+    }
+
+    private static Move move(String uci, PieceColor side) {
+        Position from = new Position('8' - uci.charAt(1), uci.charAt(0) - 'a');
+        Position to = new Position('8' - uci.charAt(3), uci.charAt(2) - 'a');
+        return uci.length() > 4 ? new Move(from, to, new Knight(side)) : new Move(from, to);
+    }
+}
@@ -0,0 +1,49 @@
+package chess.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import chess.model.Board;
+import chess.model.Fen;
+import chess.model.PieceColor;
+
+class PositionSnapshotTest {
+
+    @Test
+    void restoredBoardHasTheSameKeyAndFenAtEveryPly() {
+        List<Step> steps = GameFixture.game(80, 11);
+        Board board = new Board();
+        for (int ply = 0; ply <= steps.size(); ply++) {
+            PieceColor side = StepRecord.sideToMove(ply);
+            PositionSnapshot read = PositionSnapshot.read(written(PositionSnapshot.of(board, side, ply)));
+
+            Board restored = read.toBoard();
+            assertEquals(ply, read.getPly());
+            assertEquals(side, read.getSideToMove());
+            assertEquals(board.getZobristKey(side), restored.getZobristKey(side), "ply " + ply);
+            assertEquals(Fen.fromBoard(board, side), Fen.fromBoard(restored, side), "ply " + ply);
+            if (ply < steps.size()) {
+                StepRecord.replay(board, steps.get(ply));
+            }
+        }
+    }
+
+    @Test
+    void corruptSnapshotIsRejected() {
+        ByteBuffer data = written(PositionSnapshot.of(new Board(), PieceColor.WHITE, 0));
+        data.put(5, (byte) (data.get(5) ^ 1));
+        assertNull(PositionSnapshot.read(data));
+    }
+
+    private static ByteBuffer written(PositionSnapshot snapshot) {
+        ByteBuffer data = ByteBuffer.allocate(PositionSnapshot.BYTES);
+        snapshot.write(data);
+        data.flip();
+        return data;
+    }
+}
@@ -0,0 +1,237 @@
+package chess.history;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import chess.util.PersistenceWriter;
+
+class StepHistoryStoreTest {
+    /** Journal header length of the current version. */
+    private static final int HEADER_BYTES = 40;
+
+    @TempDir
+    Path dir;
+
+    private PersistenceWriter writer;
+    private String file;
+
+    @BeforeEach
+    void setUp() {
+        writer = new PersistenceWriter(PersistenceWriter.DEFAULT_CAPACITY, 0);
+        file = dir.resolve("history.dat").toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.flush();
+    }
+
+    @Test
+    void reopenedJournalHoldsTheSameStepsMetadataAndKey() {
+        List<Step> steps = GameFixture.game(40, 1);
+        StepHistoryStore store = save(steps);
+        store.close();
+        writer.flush();
+
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps, reopened.loadApplied());
+        GameMetadata metadata = reopened.getGameMetadata();
+        assertEquals(GameMetadata.GameMode.PVAI, metadata.getGameMode());
+        assertEquals(120_000L, metadata.getWhiteTimeMillis());
+        assertEquals(90_000L, metadata.getBlackTimeMillis());
+        assertEquals(GameFixture.key(steps, steps.size()), reopened.getPositionKey());
+    }
+
+    @Test
+    void appendedStepsAreReadBack() {
+        List<Step> steps = GameFixture.game(35, 2);
+        StepHistoryStore store = save(steps.subList(0, 10));
+        for (int i = 10; i < steps.size(); i++) {
+            store.append(steps.get(i), GameFixture.key(steps, i + 1));
+        }
+        writer.flush();
+
+        assertSameSteps(steps, new StepHistoryStore(file, writer).loadApplied());
+        assertEquals(recordOffset(steps.size()), length());
+    }
+
+    @Test
+    void undoTruncatesTheJournal() {
+        List<Step> steps = GameFixture.game(40, 3);
+        StepHistoryStore store = save(steps);
+        StepHistory history = new StepHistory();
+        history.loadAppliedSteps(steps.subList(0, 21));
+        store.saveApplied(history, GameFixture.key(steps, 21));
+        writer.flush();
+
+        assertEquals(recordOffset(21), length());
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps.subList(0, 21), reopened.loadApplied());
+        assertEquals(GameFixture.key(steps, 21), reopened.getPositionKey());
+    }
+
+    @Test
+    void tornTailIsDropped() throws IOException {
+        List<Step> steps = GameFixture.game(20, 4);
+        save(steps).close();
+        writer.flush();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[] { 1, 2, 3, 4, 5, 6, 7 });
+        }
+
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps, reopened.loadApplied());
+        // The key may belong to the torn records, so it is not trusted
+        assertNull(reopened.getPositionKey());
+
+        // The next save cuts the tail off
+        reopened.saveApplied(history(steps), GameFixture.key(steps, steps.size()));
+        writer.flush();
+        assertEquals(recordOffset(steps.size()), length());
+    }
+
+    @Test
+    void corruptRecordKeepsTheStepsBeforeIt() throws IOException {
+        List<Step> steps = GameFixture.game(30, 5);
+        save(steps).close();
+        writer.flush();
+        flipByte(recordOffset(20) + 3);
+
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps.subList(0, 20), reopened.loadApplied());
+        assertNull(reopened.getPositionKey());
+    }
+
+    @Test
+    void recordWithoutItsSnapshotIsDropped() throws IOException {
+        List<Step> steps = GameFixture.game(30, 6);
+        save(steps).close();
+        writer.flush();
+        // Damages the snapshot after ply 16
+        flipByte(recordOffset(StepHistoryStore.SNAPSHOT_INTERVAL) - 10);
+
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps.subList(0, StepHistoryStore.SNAPSHOT_INTERVAL - 1), reopened.loadApplied());
+    }
+
+    @Test
+    void positionAtMatchesAReplayAtEveryPly() {
+        List<Step> steps = GameFixture.game(70, 7);
+        save(steps).close();
+        writer.flush();
+
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        List<Step> loaded = reopened.loadApplied();
+        for (int ply = 0; ply <= steps.size(); ply++) {
+            assertEquals(GameFixture.key(steps, ply),
+                    reopened.positionAt(ply).getZobristKey(StepRecord.sideToMove(ply)), "ply " + ply);
+            assertEquals(GameFixture.key(steps, ply),
+                    reopened.positionAt(loaded, ply).getZobristKey(StepRecord.sideToMove(ply)), "ply " + ply);
+        }
+        assertNull(reopened.positionAt(steps.size() + 1));
+    }
+
+    @Test
+    void positionAtIgnoresSnapshotsOfReplacedSteps() {
+        List<Step> first = GameFixture.game(50, 8);
+        StepHistoryStore store = save(first);
+        List<Step> other = new ArrayList<>(first.subList(0, 20));
+        other.addAll(GameFixture.game(50, 9).subList(20, 50));
+        // The second game shares the first 15 moves; the rest differs
+        store.saveApplied(history(other), GameFixture.key(other, other.size()));
+
+        for (int ply = 0; ply <= other.size(); ply++) {
+            assertEquals(GameFixture.key(other, ply),
+                    store.positionAt(ply).getZobristKey(StepRecord.sideToMove(ply)), "ply " + ply);
+        }
+    }
+
+    @Test
+    void legacyObjectStreamFileIsReadAndRewritten() throws IOException {
+        List<Step> steps = GameFixture.game(25, 10);
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(new GameMetadata(GameMetadata.GameMode.PVP, 60_000L, 50_000L));
+            out.writeObject(new ArrayList<>(steps));
+        }
+
+        StepHistoryStore store = new StepHistoryStore(file, writer);
+        List<Step> loaded = store.loadApplied();
+        assertSameSteps(steps, loaded);
+        assertEquals(GameMetadata.GameMode.PVP, store.getGameMetadata().getGameMode());
+        assertNull(store.getPositionKey());
+
+        store.saveApplied(history(loaded), GameFixture.key(steps, steps.size()));
+        writer.flush();
+        assertEquals(recordOffset(steps.size()), length());
+        StepHistoryStore reopened = new StepHistoryStore(file, writer);
+        assertSameSteps(steps, reopened.loadApplied());
+        assertEquals(GameMetadata.GameMode.PVP, reopened.getGameMetadata().getGameMode());
+    }
+
+    @Test
+    void missingFileLoadsNoSteps() {
+        StepHistoryStore store = new StepHistoryStore(file, writer);
+        assertEquals(0, store.loadApplied().size());
+        assertNotNull(store.positionAt(0));
+    }
+
+    private StepHistoryStore save(List<Step> steps) {
+        StepHistoryStore store = new StepHistoryStore(file, writer);
+        store.setGameMetadata(new GameMetadata(GameMetadata.GameMode.PVAI, 120_000L, 90_000L));
+        store.saveApplied(history(steps), GameFixture.key(steps, steps.size()));
+        writer.flush();
+        return store;
+    }
+
+    private static StepHistory history(List<Step> steps) {
+        StepHistory history = new StepHistory();
+        history.loadAppliedSteps(steps);
+        return history;
+    }
+
+    private static void assertSameSteps(List<Step> expected, List<Step> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(GameFixture.encode(expected.get(i)), GameFixture.encode(actual.get(i)), "step " + i);
+        }
+    }
+
+    private void flipByte(long offset) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(offset);
+            int value = raf.read();
+            raf.seek(offset);
+            raf.write(value ^ 0x5A);
+        }
+    }
+
+    private long length() {
+        try {
+            return Files.size(Path.of(file));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long recordOffset(int index) {
+        return HEADER_BYTES + (long) index * StepRecord.BYTES
+                + (long) (index / StepHistoryStore.SNAPSHOT_INTERVAL) * PositionSnapshot.BYTES;
+    }
+}
@@ -0,0 +1,310 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.ai.AlphaBetaSearch;
+import chess.ai.LazySmpSearch;
+import chess.ai.MinimaxTreeSearch;
+import chess.ai.NnueEvaluator;
+import chess.ai.TaperedEvaluator;
+import chess.ai.TimeManager;
+import chess.ai.TranspositionTable;
+import chess.model.Board;
+import chess.model.Fen;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+/**
+ * Headless engine speaking the UCI protocol over stdin/stdout, for tournament managers
+ * and testing tools. No JavaFX class is loaded.
+ *
+ * <p>
+ * Supported commands: {@code uci}, {@code isready}, {@code setoption name Hash|Threads
+ * value N}, {@code ucinewgame}, {@code position startpos|fen ... [moves ...]},
+ * {@code go [depth N] [movetime N] [wtime N] [btime N] [infinite]}, {@code stop} and
+ * {@code quit}. The search ({@link LazySmpSearch}) runs on its own thread so
+ * {@code stop} is read while it thinks; every completed iteration is reported as an
+ * {@code info} line with depth, score, nodes, nps and the principal variation.
+ */
+public class UciMain {
+    private static final String NAME = "Ajedrez";
+    /** Depth limit when {@code go} gives none. */
+    private static final int MAX_DEPTH = 64;
+    private static final int MAX_PV_LENGTH = 32;
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 1024;
+    private static final int MAX_THREADS = 64;
+
+    private final MinimaxTreeSearch.BoardEvaluator evaluator = NnueEvaluator.orElse(new TaperedEvaluator());
+    private Board board = new Board();
+    private PieceColor sideToMove = PieceColor.WHITE;
+    private int hashSizeMb = DEFAULT_HASH_MB;
+    private int threads = 1;
+    private TranspositionTable table;
+    private LazySmpSearch search;
+    private Thread searchThread;
+    /** Stop signal of the search started by the last {@code go}. */
+    private AtomicBoolean searchStop = new AtomicBoolean();
+    /** Set by {@code stop}; an infinite search waits for it before answering. */
+    private boolean stopped;
+
+    public static void main(String[] args) throws IOException {
+        new UciMain().run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    private void run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] tokens = line.trim().split("\\s+");
+            try {
+                switch (tokens[0]) {
+                    case "uci":
+                        send("id name " + NAME);
+                        send("id author AvangTeam");
+                        send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                        send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                        send("uciok");
+                        break;
+                    case "isready":
+                        send("readyok");
+                        break;
+                    case "setoption":
+                        setOption(tokens);
+                        break;
+                    case "ucinewgame":
+                        awaitSearch();
+                        if (table != null) {
+                            table.clear();
+                        }
+                        break;
+                    case "position":
+                        awaitSearch();
+                        position(tokens);
+                        break;
+                    case "go":
+                        awaitSearch();
+                        go(tokens);
+                        break;
+                    case "stop":
+                        stop();
+                        awaitSearch();
+                        break;
+                    case "quit":
+                        stop();
+                        return;
+                    default:
+                        // Unknown commands are ignored, as the protocol asks
+                }
+            } catch (IllegalArgumentException e) {
+                send("info string error: " + e.getMessage());
+            }
+        }
+        stop();
+    }
+
+    private void setOption(String[] tokens) {
+        String name = valueAfter(tokens, "name");
+        String value = valueAfter(tokens, "value");
+        if (name == null || value == null) {
+            return;
+        }
+        awaitSearch();
+        if (name.equalsIgnoreCase("Hash")) {
+            hashSizeMb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+            table = null;
+            discardSearch();
+        } else if (name.equalsIgnoreCase("Threads")) {
+            threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+            discardSearch();
+        }
+    }
+
+    private void position(String[] tokens) {
+        int i = 1;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            board = Fen.toBoard(Fen.START);
+            sideToMove = PieceColor.WHITE;
+            i = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (i = 2; i < tokens.length && !tokens[i].equals("moves"); i++) {
+                fen.append(tokens[i]).append(' ');
+            }
+            board = Fen.toBoard(fen.toString().trim());
+            sideToMove = Fen.sideToMove(fen.toString().trim());
+        } else {
+            throw new IllegalArgumentException("position needs startpos or fen");
+        }
+        if (i < tokens.length && tokens[i].equals("moves")) {
+            for (i++; i < tokens.length; i++) {
+                board.makeMove(parseMove(tokens[i]));
+                sideToMove = sideToMove.opposite();
+            }
+        }
+    }
+
+    private int parseMove(String uci) {
+        MoveList legal = new MoveList();
+        MoveGenerator.generate(board, sideToMove, legal);
+        for (int i = 0; i < legal.size(); i++) {
+            if (PackedMove.toUci(legal.get(i)).equals(uci)) {
+                return legal.get(i);
+            }
+        }
+        throw new IllegalArgumentException("illegal move " + uci);
+    }
+
+    private void go(String[] tokens) {
+        int depth = MAX_DEPTH;
+        long budget = AlphaBetaSearch.NO_TIME_LIMIT;
+        boolean infinite = false;
+        for (int i = 1; i < tokens.length; i++) {
+            String value = i + 1 < tokens.length ? tokens[i + 1] : null;
+            switch (tokens[i]) {
+                case "depth":
+                    depth = Math.max(1, Math.min(MAX_DEPTH, Integer.parseInt(value)));
+                    break;
+                case "movetime":
+                    budget = Math.max(1, Long.parseLong(value));
+                    break;
+                case "wtime":
+                    if (sideToMove == PieceColor.WHITE && budget == AlphaBetaSearch.NO_TIME_LIMIT) {
+                        budget = TimeManager.budgetMillis(Long.parseLong(value));
+                    }
+                    break;
+                case "btime":
+                    if (sideToMove == PieceColor.BLACK && budget == AlphaBetaSearch.NO_TIME_LIMIT) {
+                        budget = TimeManager.budgetMillis(Long.parseLong(value));
+                    }
+                    break;
+                case "infinite":
+                    infinite = true;
+                    break;
+                default:
+                    // winc, binc, movestogo, nodes, ...: not used
+            }
+        }
+
+        LazySmpSearch engine = searchEngine();
+        Board root = board.copy();
+        PieceColor side = sideToMove;
+        long start = System.currentTimeMillis();
+        engine.setIterationListener((d, score, nodes, best) -> sendInfo(root, side, d, score, nodes, best, start));
+        int maxDepth = depth;
+        long timeBudget = infinite ? AlphaBetaSearch.NO_TIME_LIMIT : budget;
+        boolean waitForStop = infinite;
+        synchronized (this) {
+            stopped = false;
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        searchStop = stop;
+        searchThread = new Thread(() -> {
+            Move best = engine.findBestMove(root, side, maxDepth, timeBudget, stop);
+            if (waitForStop) {
+                awaitStop();
+            }
+            send("bestmove " + (best != null ? PackedMove.toUci(PackedMove.fromMove(root, best)) : "0000"));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private void sendInfo(Board root, PieceColor side, int depth, int score, long nodes, int best, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        StringBuilder info = new StringBuilder("info depth ").append(depth).append(" score ");
+        if (score > AlphaBetaSearch.MATE_BOUND) {
+            info.append("mate ").append((AlphaBetaSearch.MATE - score + 1) / 2);
+        } else if (score < -AlphaBetaSearch.MATE_BOUND) {
+            info.append("mate ").append(-(AlphaBetaSearch.MATE + score) / 2);
+        } else {
+            info.append("cp ").append(score);
+        }
+        info.append(" nodes ").append(nodes)
+                .append(" nps ").append(nodes * 1000 / elapsed)
+                .append(" time ").append(elapsed)
+                .append(" hashfull ").append(table.hashfull())
+                .append(" pv ").append(PackedMove.toUci(best));
+        // The search works on its own copy, so the root may be walked here
+        root.makeMove(best);
+        MoveList rest = table.principalVariation(root, side.opposite(), Math.min(depth, MAX_PV_LENGTH) - 1);
+        root.unmakeMove();
+        for (int i = 0; i < rest.size(); i++) {
+            info.append(' ').append(PackedMove.toUci(rest.get(i)));
+        }
+        send(info.toString());
+    }
+
+    private LazySmpSearch searchEngine() {
+        if (table == null) {
+            table = new TranspositionTable(hashSizeMb);
+        }
+        if (search == null) {
+            search = new LazySmpSearch(evaluator, table, threads);
+        }
+        return search;
+    }
+
+    private void discardSearch() {
+        if (search != null) {
+            search.shutdown();
+            search = null;
+        }
+    }
+
+    /**
+     * Stops the running search and waits for its {@code bestmove}.
+     */
+    private void stop() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        searchStop.set(true);
+        awaitSearch();
+    }
+
+    private synchronized void awaitStop() {
+        while (!stopped) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void awaitSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private static String valueAfter(String[] tokens, String key) {
+        for (int i = 0; i < tokens.length - 1; i++) {
+            if (tokens[i].equals(key)) {
+                return tokens[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private static void send(String message) {
+        synchronized (System.out) {
+            System.out.println(message);
+            System.out.flush();
+        }
+    }
+}
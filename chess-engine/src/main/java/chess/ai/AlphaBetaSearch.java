@@ -0,0 +1,403 @@
+package chess.ai;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+/**
+ * Depth-first negamax search with alpha-beta pruning.
+ *
+ * <p>
+ * Unlike {@link GameTree} + {@link MinimaxTreeSearch}, no node objects are created:
+ * the search walks a single working board with make/unmake and keeps one move list
+ * per ply, so memory use is proportional to the depth, not to the tree size.
+ *
+ * <p>
+ * Leaves are resolved by {@link Quiescence} rather than evaluated directly.
+ * Scores are from the point of view of the side to move. A side without legal moves
+ * is mated ({@code -(MATE - ply)}, so shorter mates score higher) or stalemated (0).
+ * Root moves are shuffled first so that, like {@link MinimaxTreeSearch}, equally
+ * scored moves are picked at random.
+ *
+ * <p>
+ * With a {@link TranspositionTable}, results are stored per Zobrist key: a stored
+ * result that is deep enough cuts the node off, and otherwise its best move is
+ * searched first.
+ *
+ * <p>
+ * Searches are iterative deepening: each depth starts with the previous best move, and
+ * a time budget stops the search between nodes, keeping the last finished result.
+ * A stop signal does the same once the first iteration has completed; the caller owns
+ * the signal, so a stop set before the search starts is not lost.
+ */
+public class AlphaBetaSearch {
+    /**
+     * Told, on the searching thread, about every completed iteration.
+     */
+    public interface IterationListener {
+        /**
+         * @param bestMove best root move of the iteration ({@link PackedMove})
+         */
+        void iterationCompleted(int depth, int score, long nodes, int bestMove);
+    }
+
+    /** Score of being mated at the root; larger than any static evaluation. */
+    public static final int MATE = 1_000_000;
+    /** Scores beyond this bound encode a forced mate. */
+    public static final int MATE_BOUND = MATE - 1000;
+    private static final int INFINITY = MATE + 1;
+    /** Time budget meaning "search to the requested depth". */
+    public static final long NO_TIME_LIMIT = -1;
+    /** The clock is read once per this many nodes. */
+    private static final int TIME_CHECK_INTERVAL = 2048;
+
+    private final MinimaxTreeSearch.BoardEvaluator evaluator;
+    private final TranspositionTable table;
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final Quiescence quiescence;
+    private MoveList[] moveLists = new MoveList[0];
+    private int[][] moveScores = new int[0][];
+    private long nodes;
+    private int lastScore;
+    private int completedDepth;
+    private long deadline = Long.MAX_VALUE;
+    /** False while the first iteration runs, which must complete to have a move. */
+    private boolean abortable;
+    private boolean aborted;
+    /** Stop signal of the current search; replaced, never reset, by each search. */
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+    /** Extra plies added to every iteration; set on Lazy SMP helper threads. */
+    private int depthOffset;
+    /** False when another thread owns the table's search generation. */
+    private boolean agesTable = true;
+    private IterationListener iterationListener;
+
+    public AlphaBetaSearch(MinimaxTreeSearch.BoardEvaluator evaluator) {
+        this(evaluator, null);
+    }
+
+    /**
+     * @param table shared transposition table, or null to search without one
+     */
+    public AlphaBetaSearch(MinimaxTreeSearch.BoardEvaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.quiescence = new Quiescence(evaluator);
+    }
+
+    /**
+     * Best move for {@code sideToMove} searched to {@code depth} plies, or null when
+     * there is no legal move. {@code board} is not modified; the search runs on a copy.
+     */
+    public Move findBestMove(Board board, PieceColor sideToMove, int depth) {
+        return findBestMove(board, sideToMove, depth, NO_TIME_LIMIT);
+    }
+
+    /**
+     * Iterative deepening: searches depth 1, 2, ... up to {@code maxDepth} and stops
+     * early once {@code timeBudgetMillis} is spent. Returns the best move of the deepest
+     * completed iteration (or of a partial one that already improved on it), or null
+     * when there is no legal move. Depth 1 always completes.
+     */
+    public Move findBestMove(Board board, PieceColor sideToMove, int maxDepth, long timeBudgetMillis) {
+        return findBestMove(board, sideToMove, maxDepth, timeBudgetMillis, new AtomicBoolean());
+    }
+
+    /**
+     * Like {@link #findBestMove(Board, PieceColor, int, long)}, returning as soon as the
+     * first iteration has completed once {@code stop} is set, before or during the
+     * search.
+     */
+    public Move findBestMove(Board board, PieceColor sideToMove, int maxDepth, long timeBudgetMillis,
+            AtomicBoolean stop) {
+        int best = iterate(board.copy(), sideToMove, Math.max(1, maxDepth), timeBudgetMillis, stop);
+        return best == PackedMove.NONE ? null : PackedMove.toMove(best, sideToMove);
+    }
+
+    /**
+     * Score of the last completed search, from the searching side's point of view.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Nodes visited by the last search, quiescence nodes included.
+     */
+    public long getNodeCount() {
+        return nodes + quiescence.getNodeCount();
+    }
+
+    /**
+     * Deepest iteration completed by the last search.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public void setIterationListener(IterationListener listener) {
+        this.iterationListener = listener;
+    }
+
+    /**
+     * Sets the stop signal of the running search, from another thread, so it returns its
+     * best move so far as soon as the first iteration has completed. A call made before
+     * the search started reaches the previous search instead; callers racing with the
+     * start pass their own signal to {@code findBestMove}.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Resets the per-search state without generating root moves; used by
+     * {@link ParallelRootSearch}, which drives the root itself.
+     */
+    void prepare(int maxDepth, long deadline, AtomicBoolean stop) {
+        this.deadline = deadline;
+        abortable = false;
+        aborted = false;
+        stopSignal = stop;
+        resetNodeCount();
+        ordering.newSearch();
+        ensurePly(maxDepth);
+    }
+
+    /**
+     * Makes this search a {@link LazySmpSearch} thread: iterations run {@code offset}
+     * plies deeper, and only a thread with {@code agesTable} starts a new table
+     * generation.
+     */
+    void configureThread(int offset, boolean agesTable) {
+        this.depthOffset = offset;
+        this.agesTable = agesTable;
+    }
+
+    void resetNodeCount() {
+        nodes = 0;
+        quiescence.resetNodeCount();
+    }
+
+    void setAbortable(boolean abortable) {
+        this.abortable = abortable;
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Score of one root move searched to {@code depth} with the window
+     * {@code [alpha, beta]}. Meaningless when {@link #isAborted()} is true afterwards.
+     */
+    int searchRootMove(Board board, PieceColor side, int move, int depth, int alpha, int beta) {
+        board.makeMove(move);
+        int score = -negamax(board, side.opposite(), depth - 1, 1, -beta, -alpha);
+        board.unmakeMove();
+        return score;
+    }
+
+    private int iterate(Board board, PieceColor side, int maxDepth, long timeBudgetMillis, AtomicBoolean stop) {
+        long start = System.currentTimeMillis();
+        long deadline = timeBudgetMillis == NO_TIME_LIMIT ? Long.MAX_VALUE : start + timeBudgetMillis;
+        prepare(maxDepth + depthOffset, deadline, stop);
+        completedDepth = 0;
+        if (table != null && agesTable) {
+            table.newSearch();
+        }
+
+        MoveList moves = moveLists[0];
+        moves.clear();
+        MoveGenerator.generate(board, side, moves);
+        if (moves.isEmpty()) {
+            lastScore = board.isKingInCheck(side) ? -MATE : 0;
+            return PackedMove.NONE;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = moves.size() - 1; i > 0; i--) {
+            moves.swap(i, random.nextInt(i + 1));
+        }
+
+        int bestMove = moves.get(0);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            moveToFront(moves, bestMove);
+            int move = searchRoot(board, side, moves, depth + depthOffset);
+            if (move != PackedMove.NONE) {
+                bestMove = move;
+            }
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth + depthOffset;
+            abortable = true;
+            if (iterationListener != null) {
+                iterationListener.iterationCompleted(completedDepth, lastScore, getNodeCount(), bestMove);
+            }
+            if (stop.get() || Math.abs(lastScore) > MATE_BOUND) {
+                break;
+            }
+            // The next iteration costs several times this one; do not start what cannot finish
+            long elapsed = System.currentTimeMillis() - start;
+            if (timeBudgetMillis != NO_TIME_LIMIT && elapsed * 2 > timeBudgetMillis) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * One iteration over the root moves, previous best first. Returns the best move, or
+     * {@link PackedMove#NONE} when aborted before the first move was fully searched.
+     */
+    private int searchRoot(Board board, PieceColor side, MoveList moves, int depth) {
+        int bestMove = PackedMove.NONE;
+        int alpha = -INFINITY;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            int score = -negamax(board, side.opposite(), depth - 1, 1, -INFINITY, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+        if (bestMove != PackedMove.NONE) {
+            lastScore = alpha;
+        }
+        if (table != null && !aborted) {
+            table.store(board.getZobristKey(side), bestMove, TranspositionTable.scoreToTable(alpha, 0), depth,
+                    TranspositionTable.EXACT);
+        }
+        return bestMove;
+    }
+
+    private int negamax(Board board, PieceColor side, int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && abortable
+                && (stopSignal.get() || System.currentTimeMillis() >= deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        int alphaOriginal = alpha;
+        long key = 0L;
+        int ttMove = PackedMove.NONE;
+        if (table != null) {
+            key = board.getZobristKey(side);
+            long entry = table.probe(key);
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= Math.max(depth, 0)) {
+                    int score = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && score >= beta)
+                            || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        if (depth <= 0) {
+            int score = quiescence.search(board, side, alpha, beta, ply);
+            if (table != null) {
+                table.store(key, PackedMove.NONE, TranspositionTable.scoreToTable(score, ply), 0,
+                        boundOf(score, alphaOriginal, beta));
+            }
+            return score;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generate(board, side, moves);
+        if (moves.isEmpty()) {
+            return board.isKingInCheck(side) ? -(MATE - ply) : 0;
+        }
+        int[] scores = scoresFor(ply, moves.size());
+        ordering.score(board, side, moves, scores, ttMove, ply);
+
+        int best = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.next(moves, scores, i);
+            board.makeMove(move);
+            int score = -negamax(board, side.opposite(), depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        ordering.onCutoff(side, move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (table != null) {
+            int bound = boundOf(best, alphaOriginal, beta);
+            table.store(key, bound == TranspositionTable.UPPER ? PackedMove.NONE : bestMove,
+                    TranspositionTable.scoreToTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    private static int boundOf(int score, int alpha, int beta) {
+        if (score >= beta)
+            return TranspositionTable.LOWER;
+        return score > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+    }
+
+    /**
+     * Moves {@code move} to index 0 if it is in the list.
+     */
+    private static void moveToFront(MoveList moves, int move) {
+        if (move == PackedMove.NONE)
+            return;
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                moves.swap(0, i);
+                return;
+            }
+        }
+    }
+
+    private int[] scoresFor(int ply, int size) {
+        if (moveScores[ply].length < size) {
+            moveScores[ply] = new int[size];
+        }
+        return moveScores[ply];
+    }
+
+    private void ensurePly(int depth) {
+        if (moveLists.length > depth)
+            return;
+        MoveList[] grown = new MoveList[depth + 1];
+        int[][] grownScores = new int[depth + 1][];
+        System.arraycopy(moveLists, 0, grown, 0, moveLists.length);
+        System.arraycopy(moveScores, 0, grownScores, 0, moveScores.length);
+        for (int i = moveLists.length; i < grown.length; i++) {
+            grown[i] = new MoveList();
+            grownScores[i] = new int[MoveList.DEFAULT_CAPACITY];
+        }
+        moveLists = grown;
+        moveScores = grownScores;
+    }
+}
@@ -0,0 +1,80 @@
+package chess.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import chess.model.Board;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+import chess.util.GameLogger;
+
+public class GameTree {
+    private final GameTreeNode root;
+
+    public GameTree(Board board, PieceColor sideToMove) {
+        this.root = new GameTreeNode(board.copy(), PackedMove.NONE, sideToMove, null, 0);
+    }
+
+    public GameTreeNode getRoot() { return root; }
+
+    /**
+     * Depth-first expansion to given plyDepth. Child positions are produced with
+     * make/unmake on a working copy of the root board.
+     */
+    public void buildToDepth(int plyDepth) {
+        buildToDepth(plyDepth, null);
+    }
+
+    public void buildToDepth(int plyDepth, Consumer<GameTreeNode> onNodeVisited) {
+        if (plyDepth <= 0) return;
+        
+        GameLogger logger = GameLogger.getInstance();
+        long startTime = System.currentTimeMillis();
+        int[] nodeCount = {0};
+        
+        Board working = root.getBoard().copy();
+        MoveList buffer = new MoveList();
+        build(root, working, buffer, plyDepth, onNodeVisited, logger, startTime, nodeCount);
+        
+        long totalTime = System.currentTimeMillis() - startTime;
+        logger.log("  → Total: " + nodeCount[0] + " nodos en " + totalTime + "ms");
+    }
+
+    private void build(GameTreeNode n, Board working, MoveList buffer, int plyDepth, Consumer<GameTreeNode> onNodeVisited,
+            GameLogger logger, long startTime, int[] nodeCount) {
+        if (n.getDepth() >= plyDepth) return;
+        n.expand(working, buffer);
+        nodeCount[0]++;
+        
+        if (onNodeVisited != null) {
+            onNodeVisited.accept(n);
+        }
+        
+        
+        if (nodeCount[0] % 1000 == 0) {
+            long elapsed = System.currentTimeMillis() - startTime;
+            logger.log("  → Nivel " + n.getDepth() + ": " + nodeCount[0] + " nodos construidos (" + elapsed + "ms)");
+        }
+        
+        for (GameTreeNode c : n.getChildren()) {
+            if (c.getDepth() < plyDepth) {
+                working.makeMove(c.getPackedMoveFromParent());
+                build(c, working, buffer, plyDepth, onNodeVisited, logger, startTime, nodeCount);
+                working.unmakeMove();
+            }
+        }
+    }
+
+    public List<GameTreeNode> traversePreOrder() {
+        List<GameTreeNode> out = new ArrayList<>();
+        traverse(root, out);
+        return out;
+    }
+
+    private void traverse(GameTreeNode node, List<GameTreeNode> acc) {
+        acc.add(node);
+        for (GameTreeNode c : node.getChildren()) traverse(c, acc);
+    }
+}
@@ -0,0 +1,119 @@
+package chess.ai;
+
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Explicit node for a game tree.
+ *
+ * <p>
+ * Only the root stores a Board. Child positions are reached by making the moves on the
+ * path from the root on a single working board (see {@link GameTree#buildToDepth(int)}),
+ * so expanding a node does not allocate a board per child. Moves are kept in
+ * {@link PackedMove} form and only turned into {@link Move} objects on request.
+ */
+public class GameTreeNode {
+    private final Board board;
+    private final int moveFromParent;
+    private final PieceColor sideToMove;
+    private final GameTreeNode parent;
+    private final List<GameTreeNode> children = new ArrayList<>();
+    private final int depth;
+    private Integer evaluation = null;
+    private boolean expanded = false;
+
+    public GameTreeNode(Board board, int moveFromParent, PieceColor sideToMove, GameTreeNode parent, int depth) {
+        this.board = board;
+        this.moveFromParent = moveFromParent;
+        this.sideToMove = sideToMove;
+        this.parent = parent;
+        this.depth = depth;
+    }
+
+    /**
+     * Board at this node. The root returns its own board; other nodes rebuild a fresh
+     * copy by replaying the moves from the root.
+     */
+    public Board getBoard() {
+        if (board != null || parent == null) {
+            return board;
+        }
+        Board b = parent.getBoard().copy();
+        b.makeMove(moveFromParent);
+        return b;
+    }
+
+    /**
+     * Move leading to this node, or null at the root.
+     */
+    public Move getMoveFromParent() {
+        if (parent == null)
+            return null;
+        return PackedMove.toMove(moveFromParent, parent.getSideToMove());
+    }
+
+    public int getPackedMoveFromParent() {
+        return moveFromParent;
+    }
+
+    public PieceColor getSideToMove() {
+        return sideToMove;
+    }
+
+    public GameTreeNode getParent() {
+        return parent;
+    }
+
+    public List<GameTreeNode> getChildren() {
+        return children;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Integer getEvaluation() {
+        return evaluation;
+    }
+
+    public void setEvaluation(int eval) {
+        this.evaluation = eval;
+    }
+
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    public void expand() {
+        expand(getBoard(), new MoveList());
+    }
+
+    /**
+     * Expand using a board that is currently positioned at this node; {@code buffer} is
+     * scratch space for move generation and is cleared first.
+     */
+    public void expand(Board positioned, MoveList buffer) {
+        if (expanded)
+            return;
+        buffer.clear();
+        MoveGenerator.generate(positioned, sideToMove, buffer);
+        PieceColor next = sideToMove.opposite();
+        for (int i = 0; i < buffer.size(); i++) {
+            GameTreeNode child = new GameTreeNode(null, buffer.get(i), next, this, this.depth + 1);
+            children.add(child);
+        }
+        expanded = true;
+    }
+
+    @Override
+    public String toString() {
+        return "Node(depth=" + depth + ", children=" + children.size() + ", eval=" + evaluation + ")";
+    }
+}
@@ -0,0 +1,189 @@
+package chess.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.PieceColor;
+
+/**
+ * Lazy SMP: several threads run the same iterative deepening search on the same root
+ * and cooperate only through the shared, lock-free {@link TranspositionTable}.
+ *
+ * <p>
+ * The calling thread runs the main search, which owns the time budget and the result.
+ * Helper threads search alongside it; every other helper runs one ply deeper, and each
+ * shuffles the root moves on its own, so their trees diverge and fill the table with
+ * entries the main search then cuts off on. When the main search finishes the helpers
+ * are stopped; a helper that completed a deeper iteration than the main search
+ * supplies the move instead.
+ *
+ * <p>
+ * Every thread is an {@link AlphaBetaSearch} with its own board copy, move lists,
+ * killers and history; the instances are kept between searches.
+ */
+public class LazySmpSearch {
+    private final TranspositionTable table;
+    private final AlphaBetaSearch main;
+    private final AlphaBetaSearch[] helpers;
+    /** Extra plies each helper's iterations run at. */
+    private final int[] offsets;
+    private final ExecutorService executor;
+    private int completedDepth;
+    private int lastScore;
+    /** Stop signal of the current search. */
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    /**
+     * @param threads total number of search threads, the calling thread included
+     * @param table   table shared by all threads; required, it is their only channel
+     */
+    public LazySmpSearch(MinimaxTreeSearch.BoardEvaluator evaluator, TranspositionTable table, int threads) {
+        if (table == null) {
+            throw new IllegalArgumentException("Lazy SMP needs a transposition table");
+        }
+        this.table = table;
+        this.main = new AlphaBetaSearch(evaluator, table);
+        main.configureThread(0, false);
+        this.helpers = new AlphaBetaSearch[Math.max(1, threads) - 1];
+        this.offsets = new int[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            offsets[i] = (i + 1) % 2;
+            helpers[i] = new AlphaBetaSearch(evaluator, table);
+            helpers[i].configureThread(offsets[i], false);
+        }
+        this.executor = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length, r -> {
+            Thread thread = new Thread(r, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Iterative deepening up to {@code maxDepth} within {@code timeBudgetMillis} (or
+     * {@link AlphaBetaSearch#NO_TIME_LIMIT}). Returns null when there is no legal move.
+     * {@code board} is not modified.
+     */
+    public Move findBestMove(Board board, PieceColor side, int maxDepth, long timeBudgetMillis) {
+        return findBestMove(board, side, maxDepth, timeBudgetMillis, new AtomicBoolean());
+    }
+
+    /**
+     * Like {@link #findBestMove(Board, PieceColor, int, long)}, returning as soon as the
+     * main thread's first iteration has completed once {@code stop} is set, before or
+     * during the search.
+     */
+    public Move findBestMove(Board board, PieceColor side, int maxDepth, long timeBudgetMillis,
+            AtomicBoolean stop) {
+        stopSignal = stop;
+        table.newSearch();
+        Board root = board.copy();
+        List<Future<Move>> running = new ArrayList<>(helpers.length);
+        // Helpers have a signal of their own: they stop when the main search ends
+        AtomicBoolean helpersStop = new AtomicBoolean();
+        for (AlphaBetaSearch helper : helpers) {
+            // Otherwise the main thread's first reports would include the last search
+            helper.resetNodeCount();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = helpers[i];
+            // Offset iterations still end at maxDepth, so the depth limit keeps its meaning
+            int helperDepth = Math.max(1, maxDepth - offsets[i]);
+            running.add(executor.submit(
+                    () -> helper.findBestMove(root, side, helperDepth, timeBudgetMillis, helpersStop)));
+        }
+
+        Move best = main.findBestMove(root, side, maxDepth, timeBudgetMillis, stop);
+        completedDepth = main.getCompletedDepth();
+        lastScore = main.getLastScore();
+
+        helpersStop.set(true);
+        for (int i = 0; i < helpers.length; i++) {
+            Move helperMove = await(running.get(i));
+            int helperDepth = helpers[i].getCompletedDepth();
+            if (helperMove != null && helperDepth > completedDepth && helperDepth <= maxDepth) {
+                best = helperMove;
+                completedDepth = helperDepth;
+                lastScore = helpers[i].getLastScore();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Deepest iteration completed by any thread in the last search.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Score of the move returned by the last search, from the searching side's point of
+     * view.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Nodes visited by all threads in the last search.
+     */
+    public long getNodeCount() {
+        long nodes = main.getNodeCount();
+        for (AlphaBetaSearch helper : helpers) {
+            nodes += helper.getNodeCount();
+        }
+        return nodes;
+    }
+
+    /**
+     * Reports the main thread's iterations, with node counts summed over all threads.
+     */
+    public void setIterationListener(AlphaBetaSearch.IterationListener listener) {
+        main.setIterationListener(listener == null ? null
+                : (depth, score, nodes, bestMove) -> listener.iterationCompleted(depth, score, getNodeCount(),
+                        bestMove));
+    }
+
+    /**
+     * Sets the stop signal of the running search, from another thread, so it returns its
+     * best move so far. Callers racing with the start of a search pass their own signal
+     * to {@code findBestMove} instead.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Releases the helper threads. The instance cannot search afterwards.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Move of a stopped helper, once it has finished its first iteration.
+     */
+    private static Move await(Future<Move> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lazy SMP helper failed", e.getCause());
+        }
+    }
+}
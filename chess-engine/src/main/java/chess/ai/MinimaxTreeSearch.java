@@ -9,7 +9,10 @@ import chess.model.PieceColor;
 import chess.util.GameLogger;
 
 /**
- * Minimax executed over an explicit GameTree.
+ * Minimax executed over an explicit GameTree. Leaves are scored by a
+ * {@link Quiescence} search, so they are never judged in the middle of an exchange.
+ * An expanded node without children has no legal moves and is scored as mate or
+ * stalemate here; evaluators do not detect either.
  */
 public class MinimaxTreeSearch {
 
@@ -18,13 +21,13 @@ public class MinimaxTreeSearch {
     }
 
     private final GameTree tree;
-    private final BoardEvaluator evaluator;
     private final PieceColor maximizingColor;
+    private final Quiescence quiescence;
 
     public MinimaxTreeSearch(GameTree tree, BoardEvaluator evaluator, PieceColor maximizingColor) {
         this.tree = tree;
-        this.evaluator = evaluator;
         this.maximizingColor = maximizingColor;
+        this.quiescence = new Quiescence(evaluator);
     }
 
     /**
@@ -36,7 +39,7 @@ public class MinimaxTreeSearch {
         
         GameTreeNode root = tree.getRoot();
         logger.log("  → Propagando evaluaciones minimax...");
-        propagate(root);
+        propagate(root, root.getBoard().copy());
         
         long evalTime = System.currentTimeMillis() - startTime;
         logger.log("  → Evaluación completada en " + evalTime + "ms");
@@ -64,17 +67,31 @@ public class MinimaxTreeSearch {
         return selectedMove;
     }
 
-    private int propagate(GameTreeNode node) {
+    /**
+     * {@code board} is positioned at {@code node}; children are visited with make/unmake.
+     */
+    private int propagate(GameTreeNode node, Board board) {
         List<GameTreeNode> children = node.getChildren();
         if (children.isEmpty()) {
-            int val = evaluator.evaluate(node.getBoard(), maximizingColor);
+            PieceColor side = node.getSideToMove();
+            int val;
+            if (node.isExpanded()) {
+                val = board.isKingInCheck(side) ? -(AlphaBetaSearch.MATE - node.getDepth()) : 0;
+            } else {
+                val = quiescence.search(board, side, -AlphaBetaSearch.MATE, AlphaBetaSearch.MATE, node.getDepth());
+            }
+            if (side != maximizingColor) {
+                val = -val;
+            }
             node.setEvaluation(val);
             return val;
         }
         boolean nodeMax = (node.getSideToMove() == maximizingColor);
         int best = nodeMax ? Integer.MIN_VALUE : Integer.MAX_VALUE;
         for (GameTreeNode c : children) {
-            int val = propagate(c);
+            board.makeMove(c.getPackedMoveFromParent());
+            int val = propagate(c, board);
+            board.unmakeMove();
             if (nodeMax)
                 best = Math.max(best, val);
             else
@@ -0,0 +1,145 @@
+package chess.ai;
+
+import chess.model.Board;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.Piece;
+import chess.model.PieceColor;
+import chess.model.PieceType;
+
+/**
+ * Move ordering for pruning searches.
+ *
+ * <p>
+ * {@link #score} ranks every move into one of these stages, best first:
+ * <ol>
+ * <li>the transposition table move</li>
+ * <li>captures and promotions, most valuable victim first, then least valuable
+ * attacker (MVV-LVA)</li>
+ * <li>the two killer moves of the ply: quiet moves that caused a cutoff in a sibling</li>
+ * <li>other quiet moves by butterfly history (cutoffs per side, origin and destination,
+ * weighted by depth squared)</li>
+ * </ol>
+ * {@link #next} then selects lazily, so a node that cuts off early never sorts the rest.
+ * One instance belongs to one search thread.
+ */
+public class MoveOrdering {
+    public static final int MAX_PLY = 128;
+
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 26;
+    /** History values are halved once any entry reaches this, keeping them below killers. */
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    /** Victim/attacker ranks by PieceType ordinal (KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN). */
+    private static final int[] RANK = { 6, 5, 4, 3, 2, 1 };
+
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][][] history = new int[2][64][64];
+
+    /**
+     * Forgets the killers and ages the history so the new search is led by fresh data.
+     */
+    public void newSearch() {
+        for (int[] k : killers) {
+            k[0] = PackedMove.NONE;
+            k[1] = PackedMove.NONE;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] >>= 3;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an ordering score for each move of {@code moves} into {@code scores}.
+     */
+    public void score(Board board, PieceColor side, MoveList moves, int[] scores, int ttMove, int ply) {
+        int killer0 = ply < MAX_PLY ? killers[ply][0] : PackedMove.NONE;
+        int killer1 = ply < MAX_PLY ? killers[ply][1] : PackedMove.NONE;
+        int[][] sideHistory = history[side.ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + captureScore(board, move);
+            } else if (move == killer0) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = sideHistory[PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+    }
+
+    /**
+     * MVV-LVA value of a capture or promotion; larger is searched first.
+     */
+    public static int captureScore(Board board, int move) {
+        int victim = 0;
+        if (PackedMove.isEnPassant(move)) {
+            victim = RANK[PieceType.PAWN.ordinal()];
+        } else if (PackedMove.isCapture(move)) {
+            Piece captured = board.getPieceAt(PackedMove.to(move));
+            victim = captured != null ? RANK[captured.getType().ordinal()] : 0;
+        }
+        PieceType promotion = PackedMove.promotionType(move);
+        if (promotion != null) {
+            victim += RANK[promotion.ordinal()] - 1;
+        }
+        Piece attacker = board.getPieceAt(PackedMove.from(move));
+        int attackerRank = attacker != null ? RANK[attacker.getType().ordinal()] : 0;
+        return victim * 8 - attackerRank;
+    }
+
+    /**
+     * Moves the highest-scored move among {@code index..size-1} to {@code index} and
+     * returns it.
+     */
+    public static int next(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int tmp = scores[index];
+            scores[index] = scores[best];
+            scores[best] = tmp;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Records a beta cutoff. Only quiet moves update killers and history; captures are
+     * already ordered well by MVV-LVA.
+     */
+    public void onCutoff(PieceColor side, int move, int ply, int depth) {
+        if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        if (ply < MAX_PLY && killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[][] sideHistory = history[side.ordinal()];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        sideHistory[from][to] += depth * depth;
+        if (sideHistory[from][to] >= HISTORY_LIMIT) {
+            for (int[] row : sideHistory) {
+                for (int sq = 0; sq < 64; sq++) {
+                    row[sq] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package chess.ai;
+
+import chess.model.Bitboards;
+import chess.model.Board;
+import chess.model.Piece;
+import chess.model.PieceColor;
+
+/**
+ * Evaluation by an {@link NnueNetwork}.
+ *
+ * <p>
+ * The first layer is the expensive part, so it is not recomputed per node: the first
+ * time a board is evaluated, an {@link Accumulator} is attached to it as its
+ * {@link Board.PieceListener}, and from then on every piece placed or removed by
+ * make/unmake adds or subtracts one weight row per perspective. Each search thread
+ * works on its own board copy, so accumulators are never shared; the evaluator itself
+ * only reads the network and may serve several threads.
+ */
+public class NnueEvaluator implements MinimaxTreeSearch.BoardEvaluator {
+    private final NnueNetwork network;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this.network = network;
+    }
+
+    /**
+     * Evaluator for the bundled network, or {@code fallback} when there is none.
+     */
+    public static MinimaxTreeSearch.BoardEvaluator orElse(MinimaxTreeSearch.BoardEvaluator fallback) {
+        NnueNetwork network = NnueNetwork.loadDefault();
+        return network != null ? new NnueEvaluator(network) : fallback;
+    }
+
+    public NnueNetwork getNetwork() {
+        return network;
+    }
+
+    @Override
+    public int evaluate(Board board, PieceColor perspective) {
+        Accumulator accumulator = accumulatorFor(board);
+        return perspective == PieceColor.WHITE
+                ? network.forward(accumulator.white, accumulator.black)
+                : network.forward(accumulator.black, accumulator.white);
+    }
+
+    private Accumulator accumulatorFor(Board board) {
+        Board.PieceListener listener = board.getPieceListener();
+        if (listener instanceof Accumulator && ((Accumulator) listener).network == network) {
+            return (Accumulator) listener;
+        }
+        Accumulator accumulator = new Accumulator(network);
+        accumulator.refresh(board);
+        board.setPieceListener(accumulator);
+        return accumulator;
+    }
+
+    /**
+     * Hidden layer sums of both perspectives for one board, kept in step with it.
+     */
+    static final class Accumulator implements Board.PieceListener {
+        final NnueNetwork network;
+        final short[] white;
+        final short[] black;
+
+        Accumulator(NnueNetwork network) {
+            this.network = network;
+            this.white = new short[network.hidden];
+            this.black = new short[network.hidden];
+        }
+
+        /**
+         * Recomputes both sums from the pieces on {@code board}.
+         */
+        void refresh(Board board) {
+            System.arraycopy(network.hiddenBias, 0, white, 0, network.hidden);
+            System.arraycopy(network.hiddenBias, 0, black, 0, network.hidden);
+            for (long bb = board.getOccupancy(); bb != 0; bb &= bb - 1) {
+                int sq = Bitboards.firstSquare(bb);
+                piecePlaced(board.getPieceAt(sq), sq);
+            }
+        }
+
+        @Override
+        public void piecePlaced(Piece piece, int square) {
+            add(white, rowOf(PieceColor.WHITE, piece, square));
+            add(black, rowOf(PieceColor.BLACK, piece, square));
+        }
+
+        @Override
+        public void pieceRemoved(Piece piece, int square) {
+            subtract(white, rowOf(PieceColor.WHITE, piece, square));
+            subtract(black, rowOf(PieceColor.BLACK, piece, square));
+        }
+
+        private int rowOf(PieceColor perspective, Piece piece, int square) {
+            return NnueNetwork.feature(perspective, piece.getColor(), piece.getType(), square) * network.hidden;
+        }
+
+        // Plain counted loops over short arrays so the JIT can vectorize them
+
+        private void add(short[] sums, int row) {
+            short[] weights = network.featureWeights;
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += weights[row + i];
+            }
+        }
+
+        private void subtract(short[] sums, int row) {
+            short[] weights = network.featureWeights;
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] -= weights[row + i];
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package chess.ai;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import chess.model.PieceColor;
+import chess.model.PieceType;
+
+/**
+ * Weights of a small quantized evaluation network (768 inputs, one hidden layer per
+ * perspective, one output), read-only once loaded so any number of threads may use it.
+ *
+ * <p>
+ * Inputs are one-hot piece/square features seen from one side: a white knight on e4
+ * is an "own knight on e4" for White and a "their knight on e5" (mirrored) for Black.
+ * The hidden layer of each perspective is the sum of the weight rows of its active
+ * features plus a bias; {@link NnueEvaluator} keeps those sums incrementally.
+ *
+ * <p>
+ * File format, all values little-endian:
+ *
+ * <pre>
+ *  int32   magic "CNN1"
+ *  int32   hidden size H
+ *  int16   feature weights [768][H]
+ *  int16   hidden bias [H]
+ *  int16   output weights [2H]  (first H for the side to evaluate, then the opponent)
+ *  int32   output bias
+ * </pre>
+ *
+ * Hidden values are clipped to {@code [0, QA]}; the output is scaled by
+ * {@code SCALE / (QA * QB)} to centipawns.
+ */
+public final class NnueNetwork {
+    public static final int INPUTS = 768;
+    /** Resource looked up by {@link #loadDefault()}. */
+    public static final String DEFAULT_RESOURCE = "/chess/ai/default.nnue";
+
+    private static final int MAGIC = 0x314E4E43; // "CNN1"
+    private static final int MAX_HIDDEN = 4096;
+    private static final int QA = 255;
+    private static final int QB = 64;
+    private static final int SCALE = 400;
+
+    final int hidden;
+    /** Row-major: the H weights of feature f start at {@code f * H}. */
+    final short[] featureWeights;
+    final short[] hiddenBias;
+    final short[] outputWeights;
+    final int outputBias;
+
+    private NnueNetwork(int hidden, short[] featureWeights, short[] hiddenBias, short[] outputWeights,
+            int outputBias) {
+        this.hidden = hidden;
+        this.featureWeights = featureWeights;
+        this.hiddenBias = hiddenBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /** Reads the bundled network once, on first use. */
+    private static final class DefaultHolder {
+        static final NnueNetwork NETWORK = readDefault();
+    }
+
+    /**
+     * The network bundled as {@link #DEFAULT_RESOURCE}, or null when the build ships
+     * none or it cannot be read. Loaded once and shared.
+     */
+    public static NnueNetwork loadDefault() {
+        return DefaultHolder.NETWORK;
+    }
+
+    private static NnueNetwork readDefault() {
+        try (InputStream in = NnueNetwork.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            return in == null ? null : load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error loading " + DEFAULT_RESOURCE + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads a network in the format described above.
+     *
+     * @throws IllegalArgumentException when the data is not a network
+     */
+    public static NnueNetwork load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (readInt(data) != MAGIC) {
+            throw new IllegalArgumentException("Not a network file");
+        }
+        int hidden = readInt(data);
+        if (hidden <= 0 || hidden > MAX_HIDDEN) {
+            throw new IllegalArgumentException("Bad hidden size: " + hidden);
+        }
+        short[] featureWeights = readShorts(data, INPUTS * hidden);
+        short[] hiddenBias = readShorts(data, hidden);
+        short[] outputWeights = readShorts(data, 2 * hidden);
+        int outputBias = readInt(data);
+        return new NnueNetwork(hidden, featureWeights, hiddenBias, outputWeights, outputBias);
+    }
+
+    public int getHiddenSize() {
+        return hidden;
+    }
+
+    /**
+     * Input index of a piece on {@code square} seen from {@code perspective}.
+     */
+    static int feature(PieceColor perspective, PieceColor color, PieceType type, int square) {
+        int relativeSquare = perspective == PieceColor.WHITE ? square : square ^ 56;
+        int relativeColor = color == perspective ? 0 : 1;
+        return (relativeColor * 6 + type.ordinal()) * 64 + relativeSquare;
+    }
+
+    /**
+     * Output in centipawns for the side whose hidden layer is {@code us}.
+     */
+    int forward(short[] us, short[] them) {
+        long sum = 0;
+        int h = hidden;
+        // Plain counted loops over arrays so the JIT can vectorize them
+        for (int i = 0; i < h; i++) {
+            sum += clamp(us[i]) * outputWeights[i];
+        }
+        for (int i = 0; i < h; i++) {
+            sum += clamp(them[i]) * outputWeights[h + i];
+        }
+        return (int) ((sum + outputBias) * SCALE / (QA * QB));
+    }
+
+    private static int clamp(short value) {
+        return Math.max(0, Math.min(QA, value));
+    }
+
+    private static int readInt(DataInputStream data) throws IOException {
+        return Integer.reverseBytes(data.readInt());
+    }
+
+    private static short[] readShorts(DataInputStream data, int count) throws IOException {
+        short[] values = new short[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Short.reverseBytes(data.readShort());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,274 @@
+package chess.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.model.Board;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+/**
+ * Alpha-beta search that spreads the root moves over a {@link ForkJoinPool}.
+ *
+ * <p>
+ * Each iteration follows "young brothers wait": the first root move (the previous
+ * best) is searched alone with a full window to establish alpha, then the remaining
+ * moves are searched in parallel. Workers share that alpha through an
+ * {@link AtomicInteger}, so a move that raises it narrows the window of every move
+ * started afterwards, and they share the {@link TranspositionTable}.
+ *
+ * <p>
+ * Every worker is an {@link AlphaBetaSearch} with its own board copy, move lists,
+ * killers and history. The first iteration runs on a single worker and always
+ * completes; later ones stop at the time budget, keeping the best move found so far.
+ * Results are the same as {@link AlphaBetaSearch} up to ties between equal moves.
+ */
+public class ParallelRootSearch {
+    private final MinimaxTreeSearch.BoardEvaluator evaluator;
+    private final TranspositionTable table;
+    private final int threads;
+    private final ForkJoinPool pool;
+    /** Workers not currently searching; one is borrowed per root move. */
+    private final ConcurrentLinkedQueue<AlphaBetaSearch> idle = new ConcurrentLinkedQueue<>();
+    private final List<AlphaBetaSearch> workers = new ArrayList<>();
+    private final AtomicInteger alpha = new AtomicInteger();
+    private int bestMove;
+    private int bestScore;
+    private int lastScore;
+    private int completedDepth;
+    /** Stop signal of the current search, shared with its workers. */
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    /**
+     * @param threads number of pool threads, at least one
+     * @param table   transposition table shared by all workers, or null
+     */
+    public ParallelRootSearch(MinimaxTreeSearch.BoardEvaluator evaluator, TranspositionTable table, int threads) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.threads = Math.max(1, threads);
+        this.pool = new ForkJoinPool(this.threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Iterative deepening up to {@code maxDepth} within {@code timeBudgetMillis} (or
+     * {@link AlphaBetaSearch#NO_TIME_LIMIT}). Returns null when there is no legal move.
+     * {@code board} is not modified.
+     */
+    public Move findBestMove(Board board, PieceColor side, int maxDepth, long timeBudgetMillis) {
+        return findBestMove(board, side, maxDepth, timeBudgetMillis, new AtomicBoolean());
+    }
+
+    /**
+     * Like {@link #findBestMove(Board, PieceColor, int, long)}, returning as soon as the
+     * first iteration has completed once {@code stop} is set, before or during the
+     * search.
+     */
+    public Move findBestMove(Board board, PieceColor side, int maxDepth, long timeBudgetMillis,
+            AtomicBoolean stop) {
+        maxDepth = Math.max(1, maxDepth);
+        long start = System.currentTimeMillis();
+        long deadline = timeBudgetMillis == AlphaBetaSearch.NO_TIME_LIMIT ? Long.MAX_VALUE
+                : start + timeBudgetMillis;
+        stopSignal = stop;
+        completedDepth = 0;
+        if (table != null) {
+            table.newSearch();
+        }
+        synchronized (workers) {
+            for (AlphaBetaSearch worker : workers) {
+                worker.prepare(maxDepth, deadline, stop);
+            }
+        }
+
+        Board root = board.copy();
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(root, side, moves);
+        if (moves.isEmpty()) {
+            lastScore = root.isKingInCheck(side) ? -AlphaBetaSearch.MATE : 0;
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = moves.size() - 1; i > 0; i--) {
+            moves.swap(i, random.nextInt(i + 1));
+        }
+
+        int best = moves.get(0);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            moveToFront(moves, best);
+            boolean completed = searchRoot(root, side, moves, depth, maxDepth, deadline);
+            if (bestMove != PackedMove.NONE) {
+                best = bestMove;
+            }
+            if (!completed) {
+                break;
+            }
+            completedDepth = depth;
+            lastScore = bestScore;
+            if (table != null) {
+                table.store(root.getZobristKey(side), best, TranspositionTable.scoreToTable(bestScore, 0), depth,
+                        TranspositionTable.EXACT);
+            }
+            if (depth == 1) {
+                synchronized (workers) {
+                    for (AlphaBetaSearch worker : workers) {
+                        worker.setAbortable(true);
+                    }
+                }
+            }
+            if (stop.get() || Math.abs(bestScore) > AlphaBetaSearch.MATE_BOUND) {
+                break;
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            if (timeBudgetMillis != AlphaBetaSearch.NO_TIME_LIMIT && elapsed * 2 > timeBudgetMillis) {
+                break;
+            }
+        }
+        return PackedMove.toMove(best, side);
+    }
+
+    /**
+     * Score of the last search from the searching side's point of view.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Nodes visited by all workers in the last search.
+     */
+    public long getNodeCount() {
+        long nodes = 0;
+        synchronized (workers) {
+            for (AlphaBetaSearch worker : workers) {
+                nodes += worker.getNodeCount();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Sets the stop signal of the running search, from another thread, so it returns its
+     * best move so far. Callers racing with the start of a search pass their own signal
+     * to {@code findBestMove} instead.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    /**
+     * Releases the pool threads. The instance cannot search afterwards.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * One iteration; returns false when it was cut short by time or the stop signal.
+     */
+    private boolean searchRoot(Board root, PieceColor side, MoveList moves, int depth, int maxDepth,
+            long deadline) {
+        bestMove = PackedMove.NONE;
+        bestScore = -AlphaBetaSearch.MATE - 1;
+        alpha.set(-AlphaBetaSearch.MATE - 1);
+
+        // Eldest brother first: its score is the alpha the others are searched against
+        if (!searchMove(root, side, moves.get(0), depth, maxDepth, deadline)) {
+            return false;
+        }
+        if (depth == 1) {
+            // Too cheap to be worth the pool
+            for (int i = 1; i < moves.size(); i++) {
+                searchMove(root, side, moves.get(i), depth, maxDepth, deadline);
+            }
+            return true;
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<>(moves.size() - 1);
+        for (int i = 1; i < moves.size(); i++) {
+            int move = moves.get(i);
+            tasks.add(() -> searchMove(root, side, move, depth, maxDepth, deadline));
+        }
+        boolean completed = true;
+        for (Future<Boolean> result : pool.invokeAll(tasks)) {
+            try {
+                completed &= result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Root move search failed", e.getCause());
+            }
+        }
+        return completed && !stopSignal.get();
+    }
+
+    /**
+     * Searches one root move on a borrowed worker against the shared alpha. Returns
+     * false when the worker was aborted.
+     */
+    private boolean searchMove(Board root, PieceColor side, int move, int depth, int maxDepth, long deadline) {
+        AlphaBetaSearch worker = borrow(maxDepth, deadline);
+        try {
+            // copy() only reads the root, so workers may copy it concurrently
+            Board board = root.copy();
+            int windowAlpha = alpha.get();
+            int score = worker.searchRootMove(board, side, move, depth, windowAlpha, AlphaBetaSearch.MATE + 1);
+            if (worker.isAborted()) {
+                return false;
+            }
+            synchronized (this) {
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    alpha.accumulateAndGet(score, Math::max);
+                }
+            }
+            return true;
+        } finally {
+            idle.add(worker);
+        }
+    }
+
+    private AlphaBetaSearch borrow(int maxDepth, long deadline) {
+        AlphaBetaSearch worker = idle.poll();
+        if (worker != null) {
+            return worker;
+        }
+        worker = new AlphaBetaSearch(evaluator, table);
+        worker.prepare(maxDepth, deadline, stopSignal);
+        synchronized (workers) {
+            worker.setAbortable(completedDepth > 0);
+            workers.add(worker);
+        }
+        return worker;
+    }
+
+    private static void moveToFront(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                moves.swap(0, i);
+                return;
+            }
+        }
+    }
+}
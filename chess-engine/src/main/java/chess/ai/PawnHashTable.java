@@ -0,0 +1,62 @@
+package chess.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cache of pawn-structure scores keyed by {@link chess.model.Board#getPawnKey()}.
+ *
+ * <p>
+ * Pawns move rarely compared to pieces, so sibling nodes almost always share their
+ * pawn structure and the evaluation of passed, isolated and doubled pawns is computed
+ * once per structure instead of once per node. Each slot is always replaced.
+ *
+ * <p>
+ * Values are opaque {@code long}s chosen by the evaluator. Like
+ * {@link TranspositionTable}, the table is lock-free: the key array holds
+ * {@code key ^ value}, so a slot torn by concurrent writers reads as a miss.
+ */
+public class PawnHashTable {
+    /** Returned by {@link #probe} when the structure is not cached. */
+    public static final long MISS = Long.MIN_VALUE;
+
+    /** Bytes used by one slot: a key and a value. */
+    private static final int SLOT_BYTES = 16;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+
+    /**
+     * Allocates a table of at most {@code sizeMb} megabytes (rounded down to a power of
+     * two number of slots).
+     */
+    public PawnHashTable(int sizeMb) {
+        long slots = Long.highestOneBit(((long) Math.max(1, sizeMb) << 20) / SLOT_BYTES);
+        slots = Math.min(slots, 1L << 26);
+        this.keys = new long[(int) slots];
+        this.values = new long[(int) slots];
+        this.mask = (int) slots - 1;
+    }
+
+    /**
+     * Value stored for {@code pawnKey}, or {@link #MISS}.
+     */
+    public long probe(long pawnKey) {
+        int slot = (int) pawnKey & mask;
+        long value = (long) WORDS.getOpaque(values, slot);
+        // An empty slot matches only key 0 (no pawns) and yields 0, which must be the
+        // evaluator's value for an empty structure
+        if (((long) WORDS.getOpaque(keys, slot) ^ value) == pawnKey) {
+            return value;
+        }
+        return MISS;
+    }
+
+    public void store(long pawnKey, long value) {
+        int slot = (int) pawnKey & mask;
+        WORDS.setOpaque(keys, slot, pawnKey ^ value);
+        WORDS.setOpaque(values, slot, value);
+    }
+}
@@ -0,0 +1,150 @@
+package chess.ai;
+
+import chess.model.Board;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.Piece;
+import chess.model.PieceColor;
+import chess.model.PieceType;
+
+/**
+ * Quiescence search: extends a leaf through captures and promotions until the position
+ * is quiet, so the static evaluation is never taken in the middle of an exchange.
+ *
+ * <ul>
+ * <li>stand pat: the side to move may decline every capture, so the static evaluation
+ * is a lower bound and can cut off by itself</li>
+ * <li>delta pruning: a capture that cannot lift the score to alpha even with a safety
+ * margin is skipped</li>
+ * <li>in check there is no stand pat; all evasions are searched and having none is
+ * mate</li>
+ * </ul>
+ *
+ * Scores are from the point of view of the side to move. One instance belongs to one
+ * search thread.
+ */
+public class Quiescence {
+    /** Safety margin for delta pruning (positional swing a capture might still bring). */
+    private static final int DELTA_MARGIN = 200;
+    /** Plies below the leaf after which the static evaluation is returned as is. */
+    private static final int MAX_DEPTH = 32;
+    /** Material values by PieceType ordinal (KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN). */
+    private static final int[] VALUES = { 0, 900, 500, 330, 320, 100 };
+    /** Seventh rank of each side by PieceColor ordinal; row 0 is Black's back rank. */
+    private static final long[] SEVENTH_RANK = { 0xFFL << 8, 0xFFL << 48 };
+
+    private final MinimaxTreeSearch.BoardEvaluator evaluator;
+    private final MoveList[] moveLists = new MoveList[MAX_DEPTH];
+    private final int[][] moveScores = new int[MAX_DEPTH][MoveList.DEFAULT_CAPACITY];
+    private long nodes;
+
+    public Quiescence(MinimaxTreeSearch.BoardEvaluator evaluator) {
+        this.evaluator = evaluator;
+        for (int i = 0; i < MAX_DEPTH; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Quiet score of the position with {@code side} to move, within {@code [alpha, beta]}.
+     *
+     * @param ply distance from the search root, used to score mates
+     */
+    public int search(Board board, PieceColor side, int alpha, int beta, int ply) {
+        return search(board, side, alpha, beta, ply, 0);
+    }
+
+    /**
+     * Nodes visited since the last {@link #resetNodeCount()}.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    public void resetNodeCount() {
+        nodes = 0;
+    }
+
+    private int search(Board board, PieceColor side, int alpha, int beta, int ply, int qply) {
+        nodes++;
+        if (qply >= MAX_DEPTH) {
+            return evaluator.evaluate(board, side);
+        }
+        boolean inCheck = board.isKingInCheck(side);
+
+        MoveList moves = moveLists[qply];
+        moves.clear();
+        int standPat = 0;
+        if (inCheck) {
+            MoveGenerator.generate(board, side, moves);
+            if (moves.isEmpty()) {
+                return -(AlphaBetaSearch.MATE - ply);
+            }
+        } else {
+            standPat = evaluator.evaluate(board, side);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            // Not even winning a queen (and promoting, with a pawn on the seventh) would reach alpha
+            int bestGain = VALUES[PieceType.QUEEN.ordinal()];
+            if ((board.getPieces(side, PieceType.PAWN) & SEVENTH_RANK[side.ordinal()]) != 0) {
+                bestGain += VALUES[PieceType.QUEEN.ordinal()] - VALUES[PieceType.PAWN.ordinal()];
+            }
+            if (standPat + bestGain + DELTA_MARGIN <= alpha) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            MoveGenerator.generateTactical(board, side, moves);
+        }
+
+        int[] scores = moveScores[qply];
+        if (scores.length < moves.size()) {
+            scores = moveScores[qply] = new int[moves.size()];
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = MoveOrdering.captureScore(board, moves.get(i));
+        }
+
+        int best = inCheck ? -AlphaBetaSearch.MATE : standPat;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrdering.next(moves, scores, i);
+            if (!inCheck && standPat + gain(board, move) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            board.makeMove(move);
+            int score = -search(board, side.opposite(), -beta, -alpha, ply + 1, qply + 1);
+            board.unmakeMove();
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Material a capture or promotion wins at most.
+     */
+    private static int gain(Board board, int move) {
+        int gain = 0;
+        if (PackedMove.isEnPassant(move)) {
+            gain = VALUES[PieceType.PAWN.ordinal()];
+        } else if (PackedMove.isCapture(move)) {
+            Piece captured = board.getPieceAt(PackedMove.to(move));
+            gain = captured != null ? VALUES[captured.getType().ordinal()] : 0;
+        }
+        PieceType promotion = PackedMove.promotionType(move);
+        if (promotion != null) {
+            gain += VALUES[promotion.ordinal()] - VALUES[PieceType.PAWN.ordinal()];
+        }
+        return gain;
+    }
+}
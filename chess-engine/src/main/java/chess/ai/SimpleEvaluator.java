@@ -0,0 +1,20 @@
+package chess.ai;
+
+import chess.model.Board;
+import chess.model.PieceColor;
+
+/**
+ * Material and piece-square evaluation. The score is kept up to date by {@link Board}
+ * as moves are made and unmade (see {@link chess.model.PieceSquareTables}), so an
+ * evaluation costs O(1).
+ *
+ * <p>
+ * Mate and stalemate are not detected here: a search knows them when a node has no
+ * legal moves, which it finds out anyway while generating them.
+ */
+public class SimpleEvaluator {
+
+    public int evaluate(Board board, PieceColor perspective) {
+        return board.getPieceSquareScore(perspective);
+    }
+}
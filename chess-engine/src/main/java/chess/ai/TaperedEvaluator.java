@@ -0,0 +1,236 @@
+package chess.ai;
+
+import chess.model.Attacks;
+import chess.model.Bitboards;
+import chess.model.Board;
+import chess.model.PieceColor;
+import chess.model.PieceSquareTables;
+import chess.model.PieceType;
+
+/**
+ * Evaluation with separate middlegame and endgame scores, blended by the game phase
+ * of {@link Board#getGamePhase()}:
+ *
+ * <pre>
+ *  score = (mg * phase + eg * (TOTAL_PHASE - phase)) / TOTAL_PHASE
+ * </pre>
+ *
+ * Terms, each scored for both sides:
+ * <ul>
+ * <li>material and piece-square tables, kept incrementally by {@link Board}</li>
+ * <li>pawn structure: passed pawns by rank, isolated and doubled pawns; cached in a
+ * {@link PawnHashTable} under the pawn-only Zobrist key</li>
+ * <li>mobility: squares each knight, bishop, rook and queen attacks that are not
+ * occupied by its own side, relative to a typical count</li>
+ * <li>king safety (middlegame only): missing shield pawns in front of the king and
+ * enemy pieces attacking the squares around it</li>
+ * </ul>
+ *
+ * The evaluator keeps no per-call state, so one instance may serve several search
+ * threads.
+ */
+public class TaperedEvaluator implements MinimaxTreeSearch.BoardEvaluator {
+    public static final int DEFAULT_PAWN_HASH_MB = 1;
+
+    /** Passed pawn bonus by ranks advanced from the starting rank (0-5). */
+    private static final int[] PASSED_MG = { 0, 5, 10, 20, 35, 60 };
+    private static final int[] PASSED_EG = { 0, 10, 20, 40, 70, 110 };
+    private static final int ISOLATED_MG = -10;
+    private static final int ISOLATED_EG = -15;
+    /** Per pawn on a file holding more than one pawn of its side. */
+    private static final int DOUBLED_MG = -8;
+    private static final int DOUBLED_EG = -16;
+
+    /** Mobility weights and typical move counts by PieceType ordinal. */
+    private static final int[] MOBILITY_MG = { 0, 1, 2, 5, 4, 0 };
+    private static final int[] MOBILITY_EG = { 0, 2, 4, 5, 4, 0 };
+    private static final int[] MOBILITY_BASE = { 0, 13, 7, 6, 4, 0 };
+
+    private static final int SHIELD_PAWN_MG = 12;
+    /** King zone attack units by PieceType ordinal. */
+    private static final int[] ATTACK_UNITS = { 0, 5, 3, 2, 2, 0 };
+    private static final int MAX_KING_DANGER = 400;
+
+    private static final PieceType[] MOBILE_TYPES = { PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP,
+            PieceType.KNIGHT };
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    /** Squares that must be free of enemy pawns for a pawn to be passed, by color and square. */
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    /** The two rows in front of a king on the three files around it, by color and square. */
+    private static final long[][] SHIELD = new long[2][64];
+
+    static {
+        for (int col = 0; col < 8; col++) {
+            FILES[col] = Bitboards.FILE_A << col;
+        }
+        for (int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? FILES[col - 1] : 0L) | (col < 7 ? FILES[col + 1] : 0L);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int row = Bitboards.row(sq);
+            int col = Bitboards.col(sq);
+            long files = FILES[col] | ADJACENT_FILES[col];
+            for (int r = 0; r < 8; r++) {
+                long rank = 0xFFL << (r * 8);
+                // White advances towards row 0, Black towards row 7
+                if (r < row) {
+                    PASSED_SPAN[PieceColor.WHITE.ordinal()][sq] |= rank & files;
+                }
+                if (r > row) {
+                    PASSED_SPAN[PieceColor.BLACK.ordinal()][sq] |= rank & files;
+                }
+                if (r == row - 1 || r == row - 2) {
+                    SHIELD[PieceColor.WHITE.ordinal()][sq] |= rank & files;
+                }
+                if (r == row + 1 || r == row + 2) {
+                    SHIELD[PieceColor.BLACK.ordinal()][sq] |= rank & files;
+                }
+            }
+        }
+    }
+
+    private final PawnHashTable pawnTable;
+
+    public TaperedEvaluator() {
+        this(new PawnHashTable(DEFAULT_PAWN_HASH_MB));
+    }
+
+    public TaperedEvaluator(PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+
+    @Override
+    public int evaluate(Board board, PieceColor perspective) {
+        int mg = board.getPieceSquareScore(PieceColor.WHITE);
+        int eg = board.getEndgamePieceSquareScore(PieceColor.WHITE);
+
+        long pawns = pawnStructure(board);
+        mg += middlegame(pawns);
+        eg += endgame(pawns);
+
+        long white = pieceActivity(board, PieceColor.WHITE);
+        long black = pieceActivity(board, PieceColor.BLACK);
+        mg += middlegame(white) - middlegame(black);
+        eg += endgame(white) - endgame(black);
+
+        int phase = board.getGamePhase();
+        int score = (mg * phase + eg * (PieceSquareTables.TOTAL_PHASE - phase)) / PieceSquareTables.TOTAL_PHASE;
+        return perspective == PieceColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Pawn structure score from White's side, from the pawn hash when possible.
+     */
+    private long pawnStructure(Board board) {
+        long key = board.getPawnKey();
+        long cached = pawnTable.probe(key);
+        if (cached != PawnHashTable.MISS) {
+            return cached;
+        }
+        long white = pawnTerms(board, PieceColor.WHITE);
+        long black = pawnTerms(board, PieceColor.BLACK);
+        long value = pack(middlegame(white) - middlegame(black), endgame(white) - endgame(black));
+        pawnTable.store(key, value);
+        return value;
+    }
+
+    private static long pawnTerms(Board board, PieceColor color) {
+        long own = board.getPieces(color, PieceType.PAWN);
+        long enemy = board.getPieces(color.opposite(), PieceType.PAWN);
+        int mg = 0;
+        int eg = 0;
+        for (long bb = own; bb != 0; bb &= bb - 1) {
+            int sq = Bitboards.firstSquare(bb);
+            int col = Bitboards.col(sq);
+            if ((own & ADJACENT_FILES[col]) == 0) {
+                mg += ISOLATED_MG;
+                eg += ISOLATED_EG;
+            }
+            if (Bitboards.count(own & FILES[col]) > 1) {
+                mg += DOUBLED_MG;
+                eg += DOUBLED_EG;
+            }
+            if ((enemy & PASSED_SPAN[color.ordinal()][sq]) == 0) {
+                int row = Bitboards.row(sq);
+                int advanced = Math.max(0, Math.min(5, color == PieceColor.WHITE ? 6 - row : row - 1));
+                mg += PASSED_MG[advanced];
+                eg += PASSED_EG[advanced];
+            }
+        }
+        return pack(mg, eg);
+    }
+
+    /**
+     * Mobility of {@code color}'s pieces and the safety of its king.
+     */
+    private static long pieceActivity(Board board, PieceColor color) {
+        PieceColor enemy = color.opposite();
+        long occupied = board.getOccupancy();
+        long own = board.getOccupancy(color);
+        long enemyKing = board.getPieces(enemy, PieceType.KING);
+        long enemyKingZone = enemyKing == 0 ? 0L
+                : Attacks.king(Bitboards.firstSquare(enemyKing)) | enemyKing;
+
+        int mg = 0;
+        int eg = 0;
+        int attackUnits = 0;
+        int attackers = 0;
+        for (PieceType type : MOBILE_TYPES) {
+            int t = type.ordinal();
+            for (long bb = board.getPieces(color, type); bb != 0; bb &= bb - 1) {
+                int sq = Bitboards.firstSquare(bb);
+                long attacks = attacks(type, sq, occupied);
+                int moves = Bitboards.count(attacks & ~own);
+                mg += (moves - MOBILITY_BASE[t]) * MOBILITY_MG[t];
+                eg += (moves - MOBILITY_BASE[t]) * MOBILITY_EG[t];
+                long zoneHits = attacks & enemyKingZone;
+                if (zoneHits != 0) {
+                    attackers++;
+                    attackUnits += ATTACK_UNITS[t] * Bitboards.count(zoneHits);
+                }
+            }
+        }
+        // A lone attacker rarely breaks through; the danger grows with the square of the pressure
+        if (attackers >= 2) {
+            mg += Math.min(MAX_KING_DANGER, attackUnits * attackUnits / 4);
+        }
+
+        long king = board.getPieces(color, PieceType.KING);
+        if (king != 0) {
+            long shield = SHIELD[color.ordinal()][Bitboards.firstSquare(king)];
+            int shieldPawns = Bitboards.count(board.getPieces(color, PieceType.PAWN) & shield);
+            mg -= Math.max(0, 3 - shieldPawns) * SHIELD_PAWN_MG;
+        }
+        return pack(mg, eg);
+    }
+
+    private static long attacks(PieceType type, int sq, long occupied) {
+        switch (type) {
+            case QUEEN:
+                return Attacks.queen(sq, occupied);
+            case ROOK:
+                return Attacks.rook(sq, occupied);
+            case BISHOP:
+                return Attacks.bishop(sq, occupied);
+            default:
+                return Attacks.knight(sq);
+        }
+    }
+
+    /**
+     * Middlegame and endgame score in one value; (0, 0) packs to 0.
+     */
+    private static long pack(int mg, int eg) {
+        return ((long) mg << 32) | (eg & 0xFFFFFFFFL);
+    }
+
+    private static int middlegame(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int endgame(long packed) {
+        return (int) packed;
+    }
+}
@@ -0,0 +1,31 @@
+package chess.ai;
+
+/**
+ * Turns the remaining clock time into a per-move search budget.
+ *
+ * <p>
+ * The clock has no increment, so the remaining time is spread over an assumed number
+ * of moves still to play, and a single move never takes more than a fixed share of
+ * what is left. A small reserve covers the time spent outside the search (move
+ * application, UI updates).
+ */
+public final class TimeManager {
+    /** Moves the remaining time is assumed to cover. */
+    static final int MOVES_TO_GO = 30;
+    /** Never spend more than 1/MAX_SHARE of the remaining time on one move. */
+    static final int MAX_SHARE = 5;
+    static final long RESERVE_MILLIS = 100;
+    static final long MIN_BUDGET_MILLIS = 20;
+
+    private TimeManager() {
+    }
+
+    /**
+     * Search budget in milliseconds for a move with {@code remainingMillis} on the clock.
+     */
+    public static long budgetMillis(long remainingMillis) {
+        long usable = Math.max(0, remainingMillis - RESERVE_MILLIS);
+        long budget = Math.min(usable / MOVES_TO_GO, usable / MAX_SHARE);
+        return Math.max(MIN_BUDGET_MILLIS, budget);
+    }
+}
@@ -0,0 +1,231 @@
+package chess.ai;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+import chess.model.Board;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+/**
+ * Fixed-size hash table of search results keyed by Zobrist key.
+ *
+ * <p>
+ * All memory is allocated up front: two parallel {@code long} arrays hold the keys and
+ * the packed entries. Each bucket has two slots:
+ * <ul>
+ * <li>slot 0 is depth-preferred: it is only overwritten by a result searched at least
+ * as deep, by the same position, or when its entry is from an older search</li>
+ * <li>slot 1 is always replaced, so recent shallow results are still kept</li>
+ * </ul>
+ *
+ * Entry layout (64 bits):
+ *
+ * <pre>
+ *  bits  0-15  best move ({@link chess.model.PackedMove})
+ *  bits 16-47  score (signed)
+ *  bits 48-55  depth
+ *  bits 56-57  bound ({@link #EXACT}, {@link #LOWER}, {@link #UPPER})
+ *  bits 58-63  search generation
+ * </pre>
+ *
+ * Mate scores are stored relative to the node (see {@link #scoreToTable}) so they stay
+ * correct when the position is reached at a different ply.
+ *
+ * <p>
+ * The table is lock-free and may be shared by any number of search threads. Each word
+ * is read and written atomically (opaque access, so a 64-bit value is never torn even
+ * where plain {@code long} writes may be), and the key array holds {@code key ^ entry}
+ * rather than the key: a slot whose two words come from different writes fails the
+ * check in {@link #probe} and reads as a miss instead of returning another position's
+ * result. Lost updates between racing writers are accepted; they only cost a
+ * re-search.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    /** Score is a lower bound (the search failed high). */
+    public static final int LOWER = 2;
+    /** Score is an upper bound (the search failed low). */
+    public static final int UPPER = 3;
+
+    /** Bytes used by one bucket: two keys and two entries. */
+    private static final int BUCKET_BYTES = 32;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int bucketMask;
+    private final int sizeMb;
+    private volatile int generation;
+
+    /**
+     * Allocates a table of at most {@code sizeMb} megabytes (rounded down to a power of
+     * two number of buckets, at least one).
+     */
+    public TranspositionTable(int sizeMb) {
+        this.sizeMb = Math.max(1, sizeMb);
+        long buckets = Long.highestOneBit(((long) this.sizeMb << 20) / BUCKET_BYTES);
+        buckets = Math.max(1, Math.min(buckets, 1L << 26));
+        this.keys = new long[(int) buckets * 2];
+        this.entries = new long[(int) buckets * 2];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    public int getSizeMb() {
+        return sizeMb;
+    }
+
+    /**
+     * Marks the start of a new search; entries from earlier searches become
+     * replaceable in the depth-preferred slot.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 63;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Entry stored for {@code key}, or 0 when the position is not in the table. Use the
+     * static accessors to decode it.
+     */
+    public long probe(long key) {
+        int slot = ((int) key & bucketMask) << 1;
+        long entry = read(entries, slot);
+        if (entry != 0 && (read(keys, slot) ^ entry) == key) {
+            return entry;
+        }
+        entry = read(entries, slot + 1);
+        if (entry != 0 && (read(keys, slot + 1) ^ entry) == key) {
+            return entry;
+        }
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int slot = ((int) key & bucketMask) << 1;
+        int gen = generation;
+        long packed = pack(move, score, depth, bound, gen);
+
+        long current = read(entries, slot);
+        boolean samePosition = current != 0 && (read(keys, slot) ^ current) == key;
+        if (current == 0 || samePosition || depth(current) <= depth || generation(current) != gen) {
+            if (samePosition && move == 0) {
+                packed = pack(move(current), score, depth, bound, gen);
+            }
+            write(slot, key, packed);
+            return;
+        }
+        write(slot + 1, key, packed);
+    }
+
+    private void write(int slot, long key, long packed) {
+        WORDS.setOpaque(keys, slot, key ^ packed);
+        WORDS.setOpaque(entries, slot, packed);
+    }
+
+    private static long read(long[] words, int index) {
+        return (long) WORDS.getOpaque(words, index);
+    }
+
+    /**
+     * Line of stored best moves from the position of {@code board} with {@code side} to
+     * move, at most {@code maxLength} long. Stops at the first missing or illegal move
+     * (an entry may belong to a colliding position). {@code board} is restored.
+     */
+    public MoveList principalVariation(Board board, PieceColor side, int maxLength) {
+        MoveList line = new MoveList();
+        MoveList legal = new MoveList();
+        PieceColor toMove = side;
+        while (line.size() < maxLength) {
+            long entry = probe(board.getZobristKey(toMove));
+            int move = entry != 0 ? move(entry) : PackedMove.NONE;
+            if (move == PackedMove.NONE) {
+                break;
+            }
+            legal.clear();
+            MoveGenerator.generate(board, toMove, legal);
+            if (!legal.contains(move)) {
+                break;
+            }
+            board.makeMove(move);
+            line.add(move);
+            toMove = toMove.opposite();
+        }
+        for (int i = 0; i < line.size(); i++) {
+            board.unmakeMove();
+        }
+        return line;
+    }
+
+    /**
+     * Occupancy estimate in permille, sampled from the first buckets, counting only
+     * entries written by the current search.
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, entries.length);
+        int used = 0;
+        int gen = generation;
+        for (int i = 0; i < sample; i++) {
+            long entry = read(entries, i);
+            if (entry != 0 && generation(entry) == gen)
+                used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 48) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 56) & 3);
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 58);
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFFFFFFL) << 16)
+                | ((long) Math.max(0, Math.min(255, depth)) << 48)
+                | ((long) bound << 56)
+                | ((long) generation << 58);
+    }
+
+    /**
+     * Converts a search score at {@code ply} to the node-relative form stored in the
+     * table (mate distance counted from the node instead of from the root).
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score > AlphaBetaSearch.MATE_BOUND)
+            return score + ply;
+        if (score < -AlphaBetaSearch.MATE_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    public static int scoreFromTable(int score, int ply) {
+        if (score > AlphaBetaSearch.MATE_BOUND)
+            return score - ply;
+        if (score < -AlphaBetaSearch.MATE_BOUND)
+            return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,167 @@
+package chess.ai;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import chess.model.Board;
+import chess.model.Fen;
+import chess.model.Move;
+import chess.model.MoveGenerator;
+import chess.model.MoveList;
+import chess.model.PackedMove;
+import chess.model.PieceColor;
+
+/**
+ * The incremental accumulator against a full refresh, on a small random network built
+ * here since the build ships none.
+ */
+class NnueEvaluatorTest {
+    private static final int HIDDEN = 16;
+
+    private static NnueNetwork network;
+
+    private int castlings;
+    private int enPassants;
+    private int promotions;
+
+    @BeforeAll
+    static void loadNetwork() throws IOException {
+        network = NnueNetwork.load(new ByteArrayInputStream(randomNetwork(HIDDEN, 17)));
+    }
+
+    @Test
+    void accumulatorFollowsMakeAndUnmakeOfPackedMoves() {
+        // Castling both ways and en passant replies; then promotions with and without capture
+        walk("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 3);
+        walk("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1", 3);
+        walk("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 4);
+        assertTrue(castlings > 0, "no castling played");
+        assertTrue(enPassants > 0, "no en passant played");
+        assertTrue(promotions > 0, "no promotion played");
+    }
+
+    @Test
+    void accumulatorFollowsMakeAndUnmakeOfMoves() {
+        Board board = Fen.toBoard("r3k2r/1P6/8/3pP3/8/8/8/R3K2R w KQkq d6 0 1");
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        evaluator.evaluate(board, PieceColor.WHITE);
+        PieceColor side = PieceColor.WHITE;
+        int made = 0;
+        for (Move move : MoveGenerator.legalMoves(board, side)) {
+            assertTrue(board.makeMove(move));
+            assertMatchesRefresh(evaluator, board, side.opposite());
+            for (Move reply : MoveGenerator.legalMoves(board, side.opposite())) {
+                assertTrue(board.makeMove(reply));
+                assertMatchesRefresh(evaluator, board, side);
+                board.unmakeMove();
+                assertMatchesRefresh(evaluator, board, side.opposite());
+            }
+            board.unmakeMove();
+            assertMatchesRefresh(evaluator, board, side);
+            made++;
+        }
+        assertTrue(made > 0);
+    }
+
+    @Test
+    void evaluationDoesNotDependOnTheHistoryOfTheBoard() {
+        Board board = Fen.toBoard(Fen.START);
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        int before = evaluator.evaluate(board, PieceColor.WHITE);
+        Random random = new Random(3);
+        PieceColor side = PieceColor.WHITE;
+        int plies = 0;
+        for (; plies < 40; plies++) {
+            MoveList moves = new MoveList();
+            MoveGenerator.generate(board, side, moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            side = side.opposite();
+        }
+        for (int i = 0; i < plies; i++) {
+            board.unmakeMove();
+        }
+        assertEquals(before, evaluator.evaluate(board, PieceColor.WHITE));
+        assertMatchesRefresh(evaluator, board, PieceColor.WHITE);
+    }
+
+    private void walk(String fen, int depth) {
+        Board board = Fen.toBoard(fen);
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        PieceColor side = Fen.sideToMove(fen);
+        evaluator.evaluate(board, side);
+        NnueEvaluator.Accumulator attached = (NnueEvaluator.Accumulator) board.getPieceListener();
+        walk(evaluator, board, side, depth);
+        // The same accumulator served the whole walk
+        assertSame(attached, board.getPieceListener());
+    }
+
+    private void walk(NnueEvaluator evaluator, Board board, PieceColor side, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(board, side, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            castlings += PackedMove.isCastling(move) ? 1 : 0;
+            enPassants += PackedMove.isEnPassant(move) ? 1 : 0;
+            promotions += PackedMove.isPromotion(move) ? 1 : 0;
+            assertTrue(board.makeMove(move));
+            assertMatchesRefresh(evaluator, board, side.opposite());
+            walk(evaluator, board, side.opposite(), depth - 1);
+            board.unmakeMove();
+            assertMatchesRefresh(evaluator, board, side);
+        }
+    }
+
+    /**
+     * Compares the accumulator attached to {@code board} with one refreshed from scratch,
+     * and the evaluation with that of an evaluator that has never seen the board.
+     */
+    private static void assertMatchesRefresh(NnueEvaluator evaluator, Board board, PieceColor side) {
+        NnueEvaluator.Accumulator incremental = (NnueEvaluator.Accumulator) board.getPieceListener();
+        NnueEvaluator.Accumulator refreshed = new NnueEvaluator.Accumulator(network);
+        refreshed.refresh(board);
+        String fen = Fen.fromBoard(board, side);
+        assertArrayEquals(refreshed.white, incremental.white, fen);
+        assertArrayEquals(refreshed.black, incremental.black, fen);
+        assertEquals(new NnueEvaluator(network).evaluate(board.copy(), side), evaluator.evaluate(board, side), fen);
+    }
+
+    /**
+     * A network in the file format of {@link NnueNetwork}, with weights small enough that
+     * the sums stay far from overflowing a short.
+     */
+    private static byte[] randomNetwork(int hidden, long seed) {
+        Random random = new Random(seed);
+        ByteBuffer out = ByteBuffer.allocate(8 + 2 * (NnueNetwork.INPUTS * hidden + 3 * hidden) + 4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0x314E4E43);
+        out.putInt(hidden);
+        for (int i = 0; i < NnueNetwork.INPUTS * hidden; i++) {
+            out.putShort((short) (random.nextInt(61) - 30));
+        }
+        for (int i = 0; i < hidden; i++) {
+            out.putShort((short) random.nextInt(128));
+        }
+        for (int i = 0; i < 2 * hidden; i++) {
+            out.putShort((short) (random.nextInt(129) - 64));
+        }
+        out.putInt(random.nextInt(2001) - 1000);
+        return out.array();
+    }
+}
@@ -15,6 +15,7 @@ import chess.model.Board;
 import chess.model.Move;
 import chess.model.PieceColor;
 import chess.model.Position;
+import chess.util.PersistenceWriter;
 import chess.view.GameView;
 import chess.view.PieceImageLoader;
 import chess.view.StartScreen;
@@ -49,6 +50,14 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Writes whatever the background writer still holds before the JVM exits.
+     */
+    @Override
+    public void stop() {
+        PersistenceWriter.getInstance().flush();
+    }
+
     private void showStartScreen() {
         startScreen = new StartScreen(
             this::startNewGame,
@@ -60,7 +69,7 @@ public class Main extends Application {
     }
 
     private void startNewGame(PieceColor humanColor, int aiDepth) {
-        GameSettings settings = GameSettings.humanVsAI(humanColor, aiDepth);
+        GameSettings settings = withStoredEngineOptions(GameSettings.humanVsAI(humanColor, aiDepth));
         GameSettingsStore.save(settings);
         launchWithLoading("Preparando reto vs IA", settings, () -> new GameView(settings));
     }
@@ -71,7 +80,7 @@ public class Main extends Application {
     }
 
     private void startNewTwoPlayerGame() {
-        GameSettings settings = GameSettings.twoPlayers();
+        GameSettings settings = withStoredEngineOptions(GameSettings.twoPlayers());
         GameSettingsStore.save(settings);
         launchWithLoading("Configurando duelo local", settings, () -> new GameView(settings));
     }
@@ -80,11 +89,19 @@ public class Main extends Application {
         GameSettings stored = GameSettingsStore.loadOrDefault();
         GameSettings settings = stored.isAIVsAI()
                 ? stored
-                : GameSettings.aiVsAi(stored.getAiDepth());
+                : GameSettings.aiVsAi(stored.getAiDepth()).withEngineOptionsOf(stored);
         GameSettingsStore.save(settings);
         launchWithLoading("Sincronizando IA vs IA", settings, () -> new GameView(settings));
     }
 
+    /**
+     * New settings start from defaults; keep the hash size and thread count the user
+     * already chose.
+     */
+    private static GameSettings withStoredEngineOptions(GameSettings settings) {
+        return settings.withEngineOptionsOf(GameSettingsStore.loadOrDefault());
+    }
+
     private void launchWithLoading(String headline, GameSettings settings, Supplier<GameView> gameFactory) {
         try {
             // Crea la vista del juego directamente sin pantalla de carga
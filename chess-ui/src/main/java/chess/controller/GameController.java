@@ -2,9 +2,12 @@
 package chess.controller;
 
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import chess.game.AIPlayer;
+import chess.game.EngineService;
 import chess.game.Game;
 import chess.model.Board;
 import chess.model.Move;
@@ -13,7 +16,6 @@ import chess.model.PieceColor;
 import chess.model.PieceType;
 import chess.model.Position;
 import chess.model.pieces.Bishop;
-import chess.model.pieces.King;
 import chess.model.pieces.Knight;
 import chess.model.pieces.Queen;
 import chess.model.pieces.Rook;
@@ -30,6 +32,9 @@ import javafx.util.Duration;
 
 
 public class GameController {
+    /** Pause between a move and the AI's reply, so the reply can be followed. */
+    private static final long AI_MOVE_DELAY_MILLIS = 800;
+
     private javafx.animation.Timeline timeoutChecker;
 
     private void startTimeoutChecker() {
@@ -70,6 +75,9 @@ public class GameController {
     private boolean isTwoPlayerMode = false;
     private boolean isAIVsAIMode = false;
     private boolean isHistoryNavigationLocked = false;
+    /** AI search running on the {@link EngineService}, until its move is played. */
+    private CompletableFuture<Move> pendingAIMove;
+    private CompletableFuture<Move> pendingHint;
 
     public GameController(Game game, ChessBoard chessBoard, StatusBar statusBar) {
         this(game, chessBoard, statusBar, false, false);
@@ -151,7 +159,7 @@ public class GameController {
 
 
     public void undoStepWithAnimation() {
-        if (isAnimating || game == null || gameView == null) {
+        if (isAnimating || pendingAIMove != null || game == null || gameView == null) {
             return;
         }
 
@@ -164,14 +172,12 @@ public class GameController {
         }
 
         chess.history.StepHistory history = game.getStepHistory();
-        Step step1 = history != null ? history.popForUndo() : null;
+        Step step1 = history != null ? history.peekUndo() : null;
         if (step1 == null) {
             updateHistoryNavigationButtons();
             return;
         }
 
-        final Step step2 = (stepsToUndo == 2 && history != null) ? history.popForUndo() : null;
-
         isAnimating = true;
         chessBoard.clearHighlights();
         selectedPosition = null;
@@ -183,15 +189,15 @@ public class GameController {
 
             isHistoryNavigationLocked = false;
 
-            game.getStepHistoryStore().saveApplied(game.getStepHistory());
+            game.getStepHistoryStore().saveApplied(game.getStepHistory(), game.getPositionKey());
             updateHistoryNavigationButtons();
 
             isAnimating = false;
         };
 
-        Runnable applyUndoStep2 = () -> {
+        Runnable afterAnimStep2 = () -> {
             // Después de animar step2, aplica su deshacer lógico y finaliza.
-            applyUndo(step2);
+            Step step2 = game.undoLastMove();
             gameView.removeLastMoveFromHistory();
             if (step2.getCapturedPiece() != null) {
                 gameView.removeLastCapturedPiece(step2.getCapturedPiece().getColor());
@@ -205,7 +211,7 @@ public class GameController {
 
         Runnable afterAnimStep1 = () -> {
             // Después de animar step1, aplica su deshacer lógico.
-            applyUndo(step1);
+            game.undoLastMove();
             gameView.removeLastMoveFromHistory();
             if (step1.getCapturedPiece() != null) {
                 gameView.removeLastCapturedPiece(step1.getCapturedPiece().getColor());
@@ -218,13 +224,14 @@ public class GameController {
             gameView.updateTimers();
 
             // If PVAI and there is a second step, animate it too.
+            Step step2 = stepsToUndo == 2 ? history.peekUndo() : null;
             if (step2 != null) {
                 Move reverse2 = new Move(step2.getMove().getTo(), step2.getMove().getFrom());
                 if (step2.isCastling()) {
                     Move rookReverse2 = new Move(step2.getRookTo(), step2.getRookFrom());
-                    chessBoard.animateMovesSimultaneously(reverse2, rookReverse2, applyUndoStep2);
+                    chessBoard.animateMovesSimultaneously(reverse2, rookReverse2, afterAnimStep2);
                 } else {
-                    chessBoard.animateMove(reverse2, applyUndoStep2);
+                    chessBoard.animateMove(reverse2, afterAnimStep2);
                 }
                 return;
             }
@@ -244,7 +251,7 @@ public class GameController {
 
 
     public void redoStepWithAnimation() {
-        if (isAnimating || game == null || gameView == null) {
+        if (isAnimating || pendingAIMove != null || game == null || gameView == null) {
             return;
         }
 
@@ -257,14 +264,12 @@ public class GameController {
         }
 
         chess.history.StepHistory history = game.getStepHistory();
-        Step step1 = history != null ? history.popForRedo() : null;
+        Step step1 = history != null ? history.peekRedo() : null;
         if (step1 == null) {
             updateHistoryNavigationButtons();
             return;
         }
 
-        final Step step2 = (stepsToRedo == 2 && history != null) ? history.popForRedo() : null;
-
         isAnimating = true;
         chessBoard.clearHighlights();
         selectedPosition = null;
@@ -274,45 +279,30 @@ public class GameController {
             gameView.updateUIFromController();
             gameView.updateTimers();
 
-            game.getStepHistoryStore().saveApplied(game.getStepHistory());
+            game.getStepHistoryStore().saveApplied(game.getStepHistory(), game.getPositionKey());
             updateHistoryNavigationButtons();
 
             isAnimating = false;
         };
 
-        Runnable applyRedoStep2 = () -> {
-            applyRedo(step2);
-            gameView.addMoveToHistoryWithColor(step2.getDisplayText(), step2.getMoverColor());
-            if (step2.getCapturedPiece() != null) {
-                gameView.addCapturedPiece(step2.getCapturedPiece().toUnicode(),
-                        step2.getCapturedPiece().getColor() == PieceColor.WHITE);
-            }
-            // Refresh only affected squares to avoid flicker.
-            chessBoard.updateSquaresForStep(step2);
-            gameView.updateUIFromController();
-            gameView.updateTimers();
+        Runnable afterAnimStep2 = () -> {
+            Step step2 = game.redoMove();
+            showRedoneStep(step2);
             finishRedoAll.run();
         };
 
         Runnable afterAnimStep1 = () -> {
-            applyRedo(step1);
-            gameView.addMoveToHistoryWithColor(step1.getDisplayText(), step1.getMoverColor());
-            if (step1.getCapturedPiece() != null) {
-                gameView.addCapturedPiece(step1.getCapturedPiece().toUnicode(),
-                        step1.getCapturedPiece().getColor() == PieceColor.WHITE);
-            }
-
-            chessBoard.updateSquaresForStep(step1);
-            gameView.updateUIFromController();
-            gameView.updateTimers();
+            game.redoMove();
+            showRedoneStep(step1);
 
+            Step step2 = stepsToRedo == 2 && !game.isGameOver() ? history.peekRedo() : null;
             if (step2 != null) {
                 Move forward2 = step2.getMove();
                 if (step2.isCastling()) {
                     Move rookForward2 = new Move(step2.getRookFrom(), step2.getRookTo());
-                    chessBoard.animateMovesSimultaneously(forward2, rookForward2, applyRedoStep2);
+                    chessBoard.animateMovesSimultaneously(forward2, rookForward2, afterAnimStep2);
                 } else {
-                    chessBoard.animateMove(forward2, applyRedoStep2);
+                    chessBoard.animateMove(forward2, afterAnimStep2);
                 }
                 return;
             }
@@ -329,105 +319,26 @@ public class GameController {
         }
     }
 
-    private void applyUndo(Step step) {
-        Board board = game.getBoard();
-        Move move = step.getMove();
-
-        game.clearGameOverState();
-
-        board.setEnPassantTarget(step.getEnPassantTargetBefore());
-
-        Piece mover = board.getPieceAt(move.getTo());
-
-        if (step.isPromotion()) {
-            mover = step.getOriginalPawn();
-        }
-
-        board.setPieceAt(move.getFrom(), mover);
-        board.setPieceAt(move.getTo(), null);
-
+    /**
+     * Shows a step just played again by {@link Game#redoMove()} and ends the game if it
+     * finished it.
+     */
+    private void showRedoneStep(Step step) {
+        gameView.addMoveToHistoryWithColor(step.getDisplayText(), step.getMoverColor());
         if (step.getCapturedPiece() != null) {
-            if (step.isEnPassant() && step.getEnPassantCapturedPawnPos() != null) {
-                board.setPieceAt(step.getEnPassantCapturedPawnPos(), step.getCapturedPiece());
-            } else {
-                board.setPieceAt(move.getTo(), step.getCapturedPiece());
-            }
-        }
-
-        if (step.isCastling() && step.getRookFrom() != null && step.getRookTo() != null) {
-            Piece rook = board.getPieceAt(step.getRookTo());
-            board.setPieceAt(step.getRookFrom(), rook);
-            board.setPieceAt(step.getRookTo(), null);
-
-            if (rook instanceof Rook && step.getRookHadMovedBefore() != null) {
-                ((Rook) rook).setHasMoved(step.getRookHadMovedBefore());
-            }
-        }
-
-        if (mover instanceof King && step.getMoverHadMovedBefore() != null) {
-            ((King) mover).setHasMoved(step.getMoverHadMovedBefore());
-        } else if (mover instanceof Rook && step.getMoverHadMovedBefore() != null) {
-            ((Rook) mover).setHasMoved(step.getMoverHadMovedBefore());
-        }
-
-        game.setMoveCount(game.getMoveCount() - 1);
-        game.setTurn(step.getMoverColor());
-    }
-
-    private void applyRedo(Step step) {
-        Board board = game.getBoard();
-        Move move = step.getMove();
-
-        game.clearGameOverState();
-
-        board.setEnPassantTarget(step.getEnPassantTargetAfter());
-
-        Piece mover = board.getPieceAt(move.getFrom());
-        if (mover == null) {
-
-            mover = board.getPieceAt(move.getTo());
-        }
-
-        if (step.isEnPassant() && step.getEnPassantCapturedPawnPos() != null) {
-            board.setPieceAt(step.getEnPassantCapturedPawnPos(), null);
-        }
-
-        if (!step.isEnPassant() && step.getCapturedPiece() != null) {
-            board.setPieceAt(move.getTo(), null);
+            gameView.addCapturedPiece(step.getCapturedPiece().toUnicode(),
+                    step.getCapturedPiece().getColor() == PieceColor.WHITE);
         }
+        // Refresh only affected squares to avoid flicker.
+        chessBoard.updateSquaresForStep(step);
+        gameView.updateUIFromController();
+        gameView.updateTimers();
 
-        board.setPieceAt(move.getTo(), mover);
-        board.setPieceAt(move.getFrom(), null);
-
-        if (mover instanceof King) {
-            ((King) mover).setHasMoved(true);
-        } else if (mover instanceof Rook) {
-            ((Rook) mover).setHasMoved(true);
-        }
-
-        if (step.isPromotion() && step.getPromotedTo() != null) {
-            board.setPieceAt(move.getTo(), step.getPromotedTo());
-        }
-
-        if (step.isCastling() && step.getRookFrom() != null && step.getRookTo() != null) {
-            Piece rook = board.getPieceAt(step.getRookFrom());
-            board.setPieceAt(step.getRookTo(), rook);
-            board.setPieceAt(step.getRookFrom(), null);
-            if (rook instanceof Rook) {
-                ((Rook) rook).setHasMoved(true);
-            }
-        }
-
-        game.setMoveCount(game.getMoveCount() + 1);
-        game.setTurn(step.getMoverColor().opposite());
-
-        String result = RulesEngine.evaluateGameResult(board, game.getTurn(), game);
+        String result = RulesEngine.evaluateGameResult(game.getBoard(), game.getTurn(), game);
         if (result != null) {
             game.setGameOver(true, result);
             isHistoryNavigationLocked = true;
-            if (gameView != null) {
-                gameView.setHintButtonEnabled(false);
-            }
+            gameView.setHintButtonEnabled(false);
         }
     }
 
@@ -876,27 +787,78 @@ public class GameController {
     }
 
     private void handleAITurn() {
+        // A hint asked before the last move no longer applies
+        cancelPendingSearches();
 
         if (isTwoPlayerMode || isAIVsAIMode) {
             return;
         }
 
-        Move aiMove = game.getAIMoveIfAny();
-        if (aiMove != null) {
-            new Thread(() -> {
-                try {
-                    Thread.sleep(800);
+        CompletableFuture<Move> search = game.requestAIMoveIfAny();
+        if (search == null) {
+            return;
+        }
+        pendingAIMove = search;
+        long start = System.currentTimeMillis();
+        search.whenComplete((aiMove, error) -> javafx.application.Platform.runLater(() -> {
+            if (search != pendingAIMove) {
+                // Cancelled, or superseded by a newer request
+                return;
+            }
+            if (aiMove == null) {
+                pendingAIMove = null;
+                reportSearchError(error);
+                return;
+            }
+            long remaining = AI_MOVE_DELAY_MILLIS - (System.currentTimeMillis() - start);
+            PauseTransition pause = new PauseTransition(Duration.millis(Math.max(1, remaining)));
+            pause.setOnFinished(e -> {
+                if (search != pendingAIMove) {
+                    return;
+                }
+                pendingAIMove = null;
+                chessBoard.clearHighlights();
+                selectedPosition = null;
+
+                executeMoveWithAnimation(aiMove);
+            });
+            pause.play();
+        }));
+    }
+
+    /**
+     * Cancels the AI move and hint searches still running; their results are dropped.
+     */
+    public void cancelPendingSearches() {
+        if (pendingAIMove != null) {
+            pendingAIMove.cancel(true);
+            pendingAIMove = null;
+        }
+        if (pendingHint != null) {
+            pendingHint.cancel(true);
+            pendingHint = null;
+        }
+    }
+
+    /**
+     * Cancels the pending searches and releases the search threads of the game's AI
+     * players. Called when the game is dropped.
+     */
+    public void dispose() {
+        cancelPendingSearches();
+        disposePlayer(game.getWhitePlayer());
+        disposePlayer(game.getBlackPlayer());
+    }
 
-                    javafx.application.Platform.runLater(() -> {
-                        chessBoard.clearHighlights();
-                        selectedPosition = null;
+    private static void disposePlayer(chess.game.Player player) {
+        if (player instanceof AIPlayer) {
+            ((AIPlayer) player).dispose();
+        }
+    }
 
-                        executeMoveWithAnimation(aiMove);
-                    });
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
+    private static void reportSearchError(Throwable error) {
+        if (error != null && !(error instanceof CancellationException)) {
+            System.err.println("Error en la búsqueda de la IA: " + error);
         }
     }
 
@@ -972,6 +934,7 @@ public class GameController {
     }
 
     public void resetGame() {
+        cancelPendingSearches();
         game.resetForNewGame();
         game.startClock();
         selectedPosition = null;
@@ -1082,26 +1045,44 @@ public class GameController {
 
         statusBar.setStatus("Calculando pista...");
 
-        new Thread(() -> {
-            Move hint = bestMove();
-
-            javafx.application.Platform.runLater(() -> {
-                if (hint != null) {
-                    hintedMove = hint;
-                    chessBoard.highlightHint(hint);
-                    statusBar.setStatus("Pista: " +
-                            positionToChessNotation(hint.getFrom()) + " -> " +
-                            positionToChessNotation(hint.getTo()));
-                } else {
-                    hintedMove = null;
-                    statusBar.setStatus("No se encontró ninguna pista.");
-                }
-            });
-        }).start();
+        if (pendingHint != null) {
+            pendingHint.cancel(true);
+        }
+        AIPlayer hintPlayer = hintPlayer();
+        CompletableFuture<Move> search = EngineService.getInstance().submit(hintPlayer, game.getBoard(), null);
+        pendingHint = search;
+        search.whenComplete((hint, error) -> javafx.application.Platform.runLater(() -> {
+            hintPlayer.dispose();
+            if (search != pendingHint) {
+                return;
+            }
+            pendingHint = null;
+            if (hint != null) {
+                hintedMove = hint;
+                chessBoard.highlightHint(hint);
+                statusBar.setStatus("Pista: " +
+                        positionToChessNotation(hint.getFrom()) + " -> " +
+                        positionToChessNotation(hint.getTo()));
+            } else {
+                hintedMove = null;
+                reportSearchError(error);
+                statusBar.setStatus("No se encontró ninguna pista.");
+            }
+        }));
     }
 
     public Move bestMove() {
+        AIPlayer hintPlayer = hintPlayer();
+        try {
+            return hintPlayer.chooseMove(game.getBoard());
+        } finally {
+            hintPlayer.dispose();
+        }
+    }
+
+    private AIPlayer hintPlayer() {
         int aiDepth = 3; // Default depth
+        chess.ai.TranspositionTable table = null;
         
         PieceColor currentTurn = game.getTurn();
         chess.game.Player whitePlayer = game.getWhitePlayer();
@@ -1109,11 +1090,13 @@ public class GameController {
         
         if (whitePlayer instanceof AIPlayer) {
             aiDepth = ((AIPlayer) whitePlayer).getDepth();
+            table = ((AIPlayer) whitePlayer).getTranspositionTable();
         } else if (blackPlayer instanceof AIPlayer) {
             aiDepth = ((AIPlayer) blackPlayer).getDepth();
+            table = ((AIPlayer) blackPlayer).getTranspositionTable();
         }
         
-        chess.game.AIPlayer hintAI = new chess.game.AIPlayer(currentTurn, aiDepth);
-        return hintAI.chooseMove(game.getBoard());
+        // Reuse the opponent AI's table: hints are only asked on the human's turn
+        return new AIPlayer(currentTurn, aiDepth, AIPlayer.Engine.ALPHA_BETA, table);
     }
 }
\ No newline at end of file
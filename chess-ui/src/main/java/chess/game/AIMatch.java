@@ -1,5 +1,8 @@
 package chess.game;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
 import chess.model.Move;
 import chess.model.PieceColor;
 import javafx.application.Platform;
@@ -16,6 +19,8 @@ public class AIMatch {
     private long delayBetweenMoves = 1000;
     private int moveCount = 0;
     private int maxMoves = 200;
+    /** Search of the side to move on the {@link EngineService}. */
+    private volatile CompletableFuture<Move> pendingMove;
 
     public interface MoveCallback {
         void executeMove(Move move);
@@ -57,29 +62,51 @@ public class AIMatch {
             return;
         }
 
-        try {
-            PieceColor currentTurn = game.getTurn();
-            AIPlayer currentAI = (currentTurn == PieceColor.WHITE) ? whiteAI : blackAI;
+        if (pendingMove != null) {
+            return;
+        }
 
-            Move move = currentAI.chooseMove(game.getBoard());
+        PieceColor currentTurn = game.getTurn();
+        AIPlayer currentAI = (currentTurn == PieceColor.WHITE) ? whiteAI : blackAI;
+
+        // The search runs on the engine service; its move is played on the JavaFX thread
+        CompletableFuture<Move> search = EngineService.getInstance().submit(currentAI, game.getBoard(),
+                game.getGameClock());
+        pendingMove = search;
+        search.whenComplete((move, error) -> Platform.runLater(() -> {
+            if (search != pendingMove) {
+                return;
+            }
+            pendingMove = null;
+            if (error != null) {
+                if (!(error instanceof CancellationException)) {
+                    System.err.println("Error en la búsqueda de la IA: " + error);
+                }
+                isRunning = false;
+                return;
+            }
+            if (isRunning && !isPaused) {
+                playMove(move);
+            }
+        }));
+    }
 
+    private void playMove(Move move) {
+        try {
             if (move != null) {
                 moveCount++;
 
                 if (onMoveExecuted != null) {
+                    onMoveExecuted.executeMove(move);
 
-                    Platform.runLater(() -> {
-                        onMoveExecuted.executeMove(move);
-
-                        scheduleNextMove();
-                    });
+                    scheduleNextMove();
                 } else {
 
                     if (!game.applyMove(move)) {
 
                         if (game.isGameOver()) {
                             if (onGameOver != null) {
-                                Platform.runLater(onGameOver);
+                                onGameOver.run();
                             }
                             isRunning = false;
                             return;
@@ -92,7 +119,7 @@ public class AIMatch {
 
                 if (game.isGameOver()) {
                     if (onGameOver != null) {
-                        Platform.runLater(onGameOver);
+                        onGameOver.run();
                     }
                     isRunning = false;
                     return;
@@ -136,6 +163,11 @@ public class AIMatch {
     public void stopMatch() {
         isRunning = false;
         isPaused = false;
+        CompletableFuture<Move> search = pendingMove;
+        if (search != null) {
+            pendingMove = null;
+            search.cancel(true);
+        }
     }
 
 
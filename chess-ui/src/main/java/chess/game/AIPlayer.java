@@ -0,0 +1,282 @@
+package chess.game;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import chess.ai.AlphaBetaSearch;
+import chess.ai.GameTree;
+import chess.ai.LazySmpSearch;
+import chess.ai.MinimaxTreeSearch;
+import chess.ai.NnueEvaluator;
+import chess.ai.ParallelRootSearch;
+import chess.ai.TaperedEvaluator;
+import chess.ai.TimeManager;
+import chess.ai.TranspositionTable;
+import chess.model.Board;
+import chess.model.GameClock;
+import chess.model.Move;
+import chess.model.PieceColor;
+import chess.util.GameLogger;
+
+/**
+ * Computer player. The search algorithm is chosen with {@link Engine}; alpha-beta is
+ * the default. Alpha-beta keeps its transposition table between moves; both AI
+ * players of a game may share one table so the game's hash memory stays capped.
+ *
+ * <p>
+ * When a {@link GameClock} is given, alpha-beta deepens iteratively until the time
+ * budget from {@link TimeManager} is spent; {@code depth} stays the upper limit so the
+ * difficulty setting keeps its meaning.
+ *
+ * <p>
+ * {@link Engine#PARALLEL_ROOT} and {@link Engine#LAZY_SMP} search with
+ * {@code threads} threads that are created on the first search and kept for the rest
+ * of the game; {@link #dispose()} releases them.
+ *
+ * <p>
+ * A player runs one search at a time; concurrent calls to {@code chooseMove} wait for
+ * the running one.
+ */
+public class AIPlayer extends Player {
+
+    public enum Engine {
+        /** Builds the full GameTree and runs MinimaxTreeSearch over it. */
+        MINIMAX_TREE,
+        /** Depth-first negamax with alpha-beta pruning; no tree is kept. */
+        ALPHA_BETA,
+        /** Alpha-beta with the root moves split across a thread pool. */
+        PARALLEL_ROOT,
+        /** Alpha-beta on every thread, sharing results through the transposition table. */
+        LAZY_SMP
+    }
+
+    private final PieceColor color;
+    private final int depth;
+    private final Engine engine;
+    private final int threads;
+    /**
+     * The bundled network when there is one, else the tapered evaluation; kept for the
+     * whole game so its pawn hash carries over between moves.
+     */
+    private final MinimaxTreeSearch.BoardEvaluator evaluator = NnueEvaluator.orElse(new TaperedEvaluator());
+    private TranspositionTable table;
+    private ParallelRootSearch parallelSearch;
+    private LazySmpSearch lazySmpSearch;
+    /** Held for the whole of a search; the engines keep per-search state. */
+    private final ReentrantLock searchLock = new ReentrantLock();
+    private volatile boolean disposed;
+    /** Stop signal of the search in progress, for {@link #stop()}. */
+    private volatile AtomicBoolean currentStop = new AtomicBoolean();
+
+    public AIPlayer(PieceColor color, int depth) {
+        this(color, depth, Engine.ALPHA_BETA);
+    }
+
+    public AIPlayer(PieceColor color, int depth, Engine engine) {
+        this(color, depth, engine, null);
+    }
+
+    /**
+     * @param table transposition table to use; when null one of
+     *              {@link GameSettings#DEFAULT_HASH_MB} is allocated on the first search
+     */
+    public AIPlayer(PieceColor color, int depth, Engine engine, TranspositionTable table) {
+        this(color, depth, engine, table, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads search threads for {@link Engine#PARALLEL_ROOT} and
+     *                {@link Engine#LAZY_SMP}; ignored by the other engines
+     */
+    public AIPlayer(PieceColor color, int depth, Engine engine, TranspositionTable table, int threads) {
+        this.color = color;
+        this.depth = depth;
+        this.engine = engine;
+        this.table = table;
+        this.threads = Math.max(1, threads);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Transposition table used by this player, or null before its first alpha-beta
+     * search when none was given.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        return chooseMove(board, null);
+    }
+
+    @Override
+    public Move chooseMove(Board board, GameClock clock) {
+        return chooseMove(board, clock, new AtomicBoolean());
+    }
+
+    @Override
+    public Move chooseMove(Board board, GameClock clock, AtomicBoolean stop) {
+        searchLock.lock();
+        try {
+            currentStop = stop;
+            return search(board, clock, stop);
+        } finally {
+            searchLock.unlock();
+            if (disposed) {
+                releaseThreads();
+            }
+        }
+    }
+
+    private Move search(Board board, GameClock clock, AtomicBoolean stop) {
+        GameLogger logger = GameLogger.getInstance();
+        logger.log("🤖 [" + color + "] Iniciando búsqueda de profundidad " + depth);
+
+        long startTime = System.currentTimeMillis();
+        MinimaxTreeSearch.BoardEvaluator be = evaluator;
+
+        Move bestMove;
+        if (engine == Engine.MINIMAX_TREE) {
+            bestMove = searchTree(board, be, logger, startTime);
+        } else if (engine == Engine.PARALLEL_ROOT) {
+            bestMove = searchParallel(board, be, logger, timeBudget(clock), stop);
+        } else if (engine == Engine.LAZY_SMP) {
+            bestMove = searchLazySmp(board, be, logger, timeBudget(clock), stop);
+        } else {
+            bestMove = searchAlphaBeta(board, be, logger, timeBudget(clock), stop);
+        }
+
+        long totalTime = System.currentTimeMillis() - startTime;
+        logger.log("✨ Movimiento seleccionado en " + totalTime + "ms");
+
+        return bestMove;
+    }
+
+    /**
+     * Stops the alpha-beta engines, which then return the best move of their last
+     * completed iteration. The game-tree search cannot be stopped and runs to the end.
+     */
+    @Override
+    public void stop() {
+        currentStop.set(true);
+    }
+
+    /**
+     * Stops the running search and releases the search threads, at once when idle or
+     * else when that search returns. Called when the game drops this player; a later
+     * search would create the threads again and release them when it ends.
+     */
+    public void dispose() {
+        disposed = true;
+        stop();
+        releaseThreads();
+    }
+
+    /**
+     * Shuts the thread pools down unless a search is running; that search releases
+     * them itself once it sees {@link #disposed}.
+     */
+    private void releaseThreads() {
+        if (!searchLock.tryLock()) {
+            return;
+        }
+        try {
+            if (parallelSearch != null) {
+                parallelSearch.shutdown();
+                parallelSearch = null;
+            }
+            if (lazySmpSearch != null) {
+                lazySmpSearch.shutdown();
+                lazySmpSearch = null;
+            }
+        } finally {
+            searchLock.unlock();
+        }
+    }
+
+    /**
+     * Budget for this move, or {@link AlphaBetaSearch#NO_TIME_LIMIT} without a clock.
+     */
+    private long timeBudget(GameClock clock) {
+        if (clock == null) {
+            return AlphaBetaSearch.NO_TIME_LIMIT;
+        }
+        long remaining = color == PieceColor.WHITE
+                ? clock.getWhiteTimeRemainingMillis()
+                : clock.getBlackTimeRemainingMillis();
+        return TimeManager.budgetMillis(remaining);
+    }
+
+    private Move searchAlphaBeta(Board board, MinimaxTreeSearch.BoardEvaluator be, GameLogger logger,
+            long timeBudget, AtomicBoolean stop) {
+        logger.log("📊 Búsqueda alfa-beta"
+                + (timeBudget == AlphaBetaSearch.NO_TIME_LIMIT ? "..." : " (límite " + timeBudget + "ms)..."));
+        if (table == null) {
+            table = new TranspositionTable(GameSettings.DEFAULT_HASH_MB);
+        }
+        AlphaBetaSearch search = new AlphaBetaSearch(be, table);
+        Move bestMove = search.findBestMove(board, color, depth, timeBudget, stop);
+        logger.log("  → profundidad " + search.getCompletedDepth() + ", " + search.getNodeCount()
+                + " nodos, score " + search.getLastScore()
+                + (bestMove != null ? ", mejor: " + bestMove : ""));
+        return bestMove;
+    }
+
+    private Move searchParallel(Board board, MinimaxTreeSearch.BoardEvaluator be, GameLogger logger,
+            long timeBudget, AtomicBoolean stop) {
+        logger.log("📊 Búsqueda alfa-beta paralela con " + threads + " hilos"
+                + (timeBudget == AlphaBetaSearch.NO_TIME_LIMIT ? "..." : " (límite " + timeBudget + "ms)..."));
+        if (table == null) {
+            table = new TranspositionTable(GameSettings.DEFAULT_HASH_MB);
+        }
+        if (parallelSearch == null) {
+            parallelSearch = new ParallelRootSearch(be, table, threads);
+        }
+        Move bestMove = parallelSearch.findBestMove(board, color, depth, timeBudget, stop);
+        logger.log("  → profundidad " + parallelSearch.getCompletedDepth() + ", " + parallelSearch.getNodeCount()
+                + " nodos, score " + parallelSearch.getLastScore()
+                + (bestMove != null ? ", mejor: " + bestMove : ""));
+        return bestMove;
+    }
+
+    private Move searchLazySmp(Board board, MinimaxTreeSearch.BoardEvaluator be, GameLogger logger,
+            long timeBudget, AtomicBoolean stop) {
+        logger.log("📊 Búsqueda Lazy SMP con " + threads + " hilos"
+                + (timeBudget == AlphaBetaSearch.NO_TIME_LIMIT ? "..." : " (límite " + timeBudget + "ms)..."));
+        if (table == null) {
+            table = new TranspositionTable(GameSettings.DEFAULT_HASH_MB);
+        }
+        if (lazySmpSearch == null) {
+            lazySmpSearch = new LazySmpSearch(be, table, threads);
+        }
+        Move bestMove = lazySmpSearch.findBestMove(board, color, depth, timeBudget, stop);
+        logger.log("  → profundidad " + lazySmpSearch.getCompletedDepth() + ", " + lazySmpSearch.getNodeCount()
+                + " nodos, score " + lazySmpSearch.getLastScore()
+                + (bestMove != null ? ", mejor: " + bestMove : ""));
+        return bestMove;
+    }
+
+    private Move searchTree(Board board, MinimaxTreeSearch.BoardEvaluator be, GameLogger logger, long startTime) {
+        GameTree tree = new GameTree(board, color);
+        logger.log("🌳 Construyendo árbol de búsqueda...");
+        tree.buildToDepth(depth);
+        long treeTime = System.currentTimeMillis() - startTime;
+        logger.log("✓ Árbol construido en " + treeTime + "ms");
+
+        MinimaxTreeSearch search = new MinimaxTreeSearch(tree, be, color);
+        logger.log("📊 Evaluando posiciones con minimax...");
+        return search.runAndGetBestMove();
+    }
+}
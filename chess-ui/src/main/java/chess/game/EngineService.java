@@ -0,0 +1,123 @@
+package chess.game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chess.model.Board;
+import chess.model.GameClock;
+import chess.model.Move;
+
+/**
+ * Runs player searches off the JavaFX thread. Requests wait in a bounded queue for
+ * one of a fixed number of daemon workers; a full queue fails the request with a
+ * {@link RejectedExecutionException} instead of piling up searches.
+ *
+ * <p>
+ * Each request searches a copy of the board taken when it is submitted, so the game
+ * may be shown and changed while the engine thinks. Every request carries its own stop
+ * signal, passed to {@link Player#chooseMove(Board, GameClock, AtomicBoolean)}:
+ * cancelling the returned future sets it and drops the request if it is still queued,
+ * so a search that is just starting stops as well. A cancelled future never delivers
+ * a move.
+ */
+public class EngineService {
+    public static final int DEFAULT_WORKERS = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static EngineService instance;
+
+    private final ThreadPoolExecutor executor;
+
+    public EngineService(int workers, int queueCapacity) {
+        AtomicInteger created = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "engine-service-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Service shared by the whole application.
+     */
+    public static synchronized EngineService getInstance() {
+        if (instance == null) {
+            instance = new EngineService(DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a search of {@code player} on a copy of {@code board}.
+     *
+     * @param clock game clock for the time budget, or null to search to full depth
+     * @return the chosen move; completes exceptionally when the queue is full or the
+     *         search fails
+     */
+    public CompletableFuture<Move> submit(Player player, Board board, GameClock clock) {
+        SearchTask task = new SearchTask(player, board.copy(), clock);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    /**
+     * Requests waiting for a worker.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Cancels queued requests and stops the workers once their searches finish.
+     */
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((SearchTask) queued).cancel(true);
+        }
+    }
+
+    private final class SearchTask extends CompletableFuture<Move> implements Runnable {
+        private final Player player;
+        private final Board board;
+        private final GameClock clock;
+        private final AtomicBoolean stop = new AtomicBoolean();
+
+        SearchTask(Player player, Board board, GameClock clock) {
+            this.player = player;
+            this.board = board;
+            this.clock = clock;
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                complete(player.chooseMove(board, clock, stop));
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                stop.set(true);
+                executor.remove(this);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package chess.game;
 
+import java.util.concurrent.CompletableFuture;
+
 import chess.model.Board;
 import chess.model.GameClock;
 import chess.model.Move;
 import chess.model.Piece;
 import chess.model.PieceColor;
+import chess.history.GameArchive;
 import chess.history.Step;
 import chess.history.StepHistory;
 import chess.history.StepHistoryStore;
 import chess.rules.RulesEngine;
 
-public class Game {
+public class Game implements RulesEngine.Game {
     private Board board;
     private Player white;
     private Player black;
@@ -23,7 +26,11 @@ public class Game {
     private boolean shouldSaveMoves = true;
     private Piece lastCapturedPiece = null;
     private GameClock gameClock;
-    private java.util.Map<String, Integer> positionHistory = new java.util.HashMap<>();
+    private java.util.Map<Long, Integer> positionHistory = new java.util.HashMap<>();
+    /** Where finished games go; null to keep them out of the archive. */
+    private GameArchive gameArchive = GameArchive.getInstance();
+    /** True once the current game was handed to the archive. */
+    private boolean archived;
 
     public Game(Player white, Player black) {
         this.board = new Board();
@@ -92,6 +99,9 @@ public class Game {
             PieceColor winner = (turn == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
             gameResult = winner + " wins! " + turn + " ran out of time!";
             gameClock.stop();
+            if (shouldSaveMoves) {
+                archiveFinishedGame();
+            }
             return false;
         }
 
@@ -134,8 +144,7 @@ public class Game {
         turn = turn.opposite();
         moveCount++;
 
-        String positionKey = generatePositionKey();
-        positionHistory.put(positionKey, positionHistory.getOrDefault(positionKey, 0) + 1);
+        positionHistory.merge(board.getZobristKey(turn), 1, Integer::sum);
 
         gameClock.switchPlayer();
 
@@ -152,11 +161,18 @@ public class Game {
                 stepHistoryStore.setGameMetadata(new chess.history.GameMetadata(mode, whiteTime, blackTime));
             }
 
-            stepHistoryStore.saveApplied(stepHistory);
+            // One record appended to the journal, not the whole history rewritten
+            stepHistoryStore.append(step, getPositionKey());
         }
 
         checkGameState();
 
+        if (gameOver && shouldSaveMoves) {
+            archiveFinishedGame();
+            // The finished game goes to disk now rather than at the writer's next interval
+            stepHistoryStore.requestSync();
+        }
+
         return true;
     }
 
@@ -262,14 +278,30 @@ public class Game {
 
         Player currentPlayer = (turn == PieceColor.WHITE) ? white : black;
         if (currentPlayer instanceof AIPlayer) {
-            return currentPlayer.chooseMove(board);
+            return currentPlayer.chooseMove(board, gameClock);
+        }
+        return null;
+    }
+
+    /**
+     * Starts the search of the AI to move on the shared {@link EngineService}; null when
+     * the game is over or a human is to move.
+     */
+    public CompletableFuture<Move> requestAIMoveIfAny() {
+        if (gameOver) {
+            return null;
+        }
+
+        Player currentPlayer = (turn == PieceColor.WHITE) ? white : black;
+        if (currentPlayer instanceof AIPlayer) {
+            return EngineService.getInstance().submit(currentPlayer, board, gameClock);
         }
         return null;
     }
 
     public Move getBestMove() {
         Player currentPlayer = (turn == PieceColor.WHITE) ? white : black;
-        return currentPlayer.chooseMove(board);
+        return currentPlayer.chooseMove(board, gameClock);
     }
 
     public void reset() {
@@ -279,7 +311,8 @@ public class Game {
         gameResult = null;
         moveCount = 0;
         gameClock.reset();
-
+        positionHistory.clear();
+        archived = false;
     }
 
     /**
@@ -294,23 +327,135 @@ public class Game {
         moveCount = 0;
         gameClock.reset();
         stepHistory.clear();
-        stepHistoryStore.saveApplied(stepHistory);
+        stepHistoryStore.saveApplied(stepHistory, getPositionKey());
         positionHistory.clear();
+        archived = false;
     }
 
-    public boolean undoLastMove() {
-        if (moveCount == 0) {
-            return false;
+    /**
+     * Puts the game on the position after {@code steps}, played from the initial
+     * position: no legality check, no clock, no history recording and no game-end
+     * check. Only for replaying a saved game whose integrity is checked another way,
+     * such as the stored position key.
+     *
+     * <p>
+     * Positions before the last capture, pawn move or castling can never occur again,
+     * so only those after it are counted for repetitions. The board is restored from
+     * the history's snapshot at or before the first of them, which leaves at most
+     * {@link StepHistoryStore#SNAPSHOT_INTERVAL} - 1 steps to play before it.
+     */
+    void replayTrusted(java.util.List<Step> steps) {
+        int firstCounted = steps.size();
+        while (firstCounted > 0 && !isIrreversible(steps.get(firstCounted - 1))) {
+            firstCounted--;
+        }
+        int start = firstCounted / StepHistoryStore.SNAPSHOT_INTERVAL * StepHistoryStore.SNAPSHOT_INTERVAL;
+        Board restored = start > 0 ? stepHistoryStore.positionAt(steps, start) : null;
+        if (restored != null) {
+            board.setPosition(restored);
+            moveCount = start;
+            turn = start % 2 == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+            if (start == firstCounted) {
+                positionHistory.merge(getPositionKey(), 1, Integer::sum);
+            }
+        } else {
+            start = 0;
         }
 
-        boolean success = board.undoLastMove();
-        if (success) {
+        for (int i = start; i < steps.size(); i++) {
+            board.movePiece(steps.get(i).getMove());
             turn = turn.opposite();
-            moveCount--;
-            gameOver = false;
-            gameResult = null;
+            moveCount++;
+            if (moveCount >= firstCounted) {
+                positionHistory.merge(board.getZobristKey(turn), 1, Integer::sum);
+            }
+        }
+        if (!steps.isEmpty()) {
+            board.setLastMove(steps.get(steps.size() - 1).getMove());
+        }
+    }
+
+    /**
+     * True when no position before {@code step} can follow it: it changes the material,
+     * the pawns or the castling rights for good.
+     */
+    private static boolean isIrreversible(Step step) {
+        return step.getCapturedPiece() != null || step.getMoverType() == chess.model.PieceType.PAWN
+                || step.isPromotion() || step.isCastling();
+    }
+
+    /**
+     * Checks for mate, stalemate and draws in the current position, as after a move.
+     */
+    void refreshGameState() {
+        checkGameState();
+        // A finished game read back was archived when it ended
+        archived = gameOver;
+    }
+
+    /**
+     * Takes back the last applied step: it goes to the redo side of the step history
+     * and the game returns to the position before it, restored from the history's
+     * snapshots, with the turn, move count, repetition counts and clock to match.
+     *
+     * @return the step taken back, or null when there is none
+     */
+    public Step undoLastMove() {
+        if (stepHistory.peekUndo() == null) {
+            return null;
         }
-        return success;
+        positionHistory.computeIfPresent(getPositionKey(), (key, count) -> count > 1 ? count - 1 : null);
+        Step step = stepHistory.popForUndo();
+        restoreAppliedPosition();
+        return step;
+    }
+
+    /**
+     * Plays again the last step taken back, restoring the position after it like
+     * {@link #undoLastMove()}. Game-end checks are left to the caller.
+     *
+     * @return the step played, or null when there is none
+     */
+    public Step redoMove() {
+        Step step = stepHistory.popForRedo();
+        if (step == null) {
+            return null;
+        }
+        restoreAppliedPosition();
+        positionHistory.merge(getPositionKey(), 1, Integer::sum);
+        return step;
+    }
+
+    /**
+     * Puts the board on the position after the applied steps of the step history.
+     */
+    private void restoreAppliedPosition() {
+        java.util.List<Step> applied = stepHistory.getAppliedSteps();
+        int ply = applied.size();
+        board.setPosition(stepHistoryStore.positionAt(applied, ply));
+        board.setLastMove(ply > 0 ? applied.get(ply - 1).getMove() : null);
+        moveCount = ply;
+        turn = ply % 2 == 0 ? PieceColor.WHITE : PieceColor.BLACK;
+        gameOver = false;
+        gameResult = null;
+        lastCapturedPiece = null;
+        if (gameClock.getActivePlayer() != turn) {
+            // Charges the time spent so far to the side that was thinking
+            gameClock.switchPlayer();
+            if (gameClock.getActivePlayer() != turn) {
+                gameClock.setActivePlayer(turn);
+            }
+        }
+    }
+
+    /**
+     * Position after {@code ply} applied moves, for browsing a game without touching
+     * it.
+     *
+     * @return a new board, or null when fewer moves were applied
+     */
+    public Board positionAt(int ply) {
+        return stepHistoryStore.positionAt(stepHistory.getAppliedSteps(), ply);
     }
 
     public boolean isKingInCheck(PieceColor color) {
@@ -379,6 +524,7 @@ public class Game {
      * @param filePath la ruta del archivo .dat
      */
     public void setMoveHistoryPath(String filePath) {
+        this.stepHistoryStore.close();
         this.stepHistoryStore = new StepHistoryStore(filePath);
     }
 
@@ -477,28 +623,43 @@ public class Game {
         this.gameResult = result;
         if (isOver) {
             stopClock();
+            if (shouldSaveMoves) {
+                archiveFinishedGame();
+            }
         }
     }
 
+    public GameArchive getGameArchive() {
+        return gameArchive;
+    }
+
+    public void setGameArchive(GameArchive gameArchive) {
+        this.gameArchive = gameArchive;
+    }
+
     /**
-     * Generate a unique key representing the current board position.
-     * Used for threefold repetition detection.
+     * Adds the game to the archive, once. The side to move has lost on checkmate or when
+     * its time ran out; every other end (stalemate, repetition, material, move limit) is
+     * a draw.
      */
-    private String generatePositionKey() {
-        StringBuilder sb = new StringBuilder();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece p = board.getPieceAt(new chess.model.Position(row, col));
-                if (p == null) {
-                    sb.append('.');
-                } else {
-                    char c = p.getType().toString().charAt(0);
-                    sb.append(p.getColor() == PieceColor.WHITE ? Character.toUpperCase(c) : Character.toLowerCase(c));
-                }
-            }
+    private void archiveFinishedGame() {
+        if (archived || gameArchive == null || stepHistory.getAppliedCount() == 0) {
+            return;
+        }
+        archived = true;
+        GameArchive.Outcome outcome = GameArchive.Outcome.DRAW;
+        if (RulesEngine.isCheckmate(board, turn) || gameClock.hasTimeExpired(turn)) {
+            outcome = turn == PieceColor.WHITE ? GameArchive.Outcome.BLACK_WINS : GameArchive.Outcome.WHITE_WINS;
         }
-        sb.append('_').append(turn);
-        return sb.toString();
+        chess.history.GameMetadata metadata = stepHistoryStore.getGameMetadata();
+        gameArchive.addGame(stepHistory.getAppliedSteps(), metadata != null ? metadata.getGameMode() : null, outcome);
+    }
+
+    /**
+     * Zobrist key of the current position with the side to move.
+     */
+    public long getPositionKey() {
+        return board.getZobristKey(turn);
     }
 
     /**
@@ -506,14 +667,14 @@ public class Game {
      * repetition).
      */
     public boolean hasThreefoldRepetition() {
-        String currentPosition = generatePositionKey();
-        return positionHistory.getOrDefault(currentPosition, 0) >= 3;
+        return positionHistory.getOrDefault(board.getZobristKey(turn), 0) >= 3;
     }
 
     /**
-     * Get position history for debugging or analysis.
+     * Get position history (Zobrist key to occurrence count) for debugging or
+     * analysis.
      */
-    public java.util.Map<String, Integer> getPositionHistory() {
+    public java.util.Map<Long, Integer> getPositionHistory() {
         return new java.util.HashMap<>(positionHistory);
     }
 }
\ No newline at end of file
@@ -46,22 +46,19 @@ public class GameReconstructor {
         if (DEBUG) {
             System.out.println("Reconstruyendo partida con " + steps.size() + " movimientos...");
         }
-        int movesApplied = 0;
-
-        for (Step step : steps) {
-            Move move = step.getMove();
-
-            Board board = game.getBoard();
-
-            if (board.getPieceAt(move.getFrom()) != null) {
-                game.applyMove(move);
-                movesApplied++;
-            } else {
+        int movesApplied;
+        Long positionKey = store.getPositionKey();
+        if (positionKey != null && replayTrusted(game, steps, positionKey)) {
+            movesApplied = steps.size();
+        } else {
+            if (positionKey != null) {
+                // The file does not lead where it says: check every move instead
                 if (DEBUG) {
-                    System.err.println("Error: No se encontró pieza en " + move.getFrom());
+                    System.err.println("El historial no coincide con la posición guardada; se revisa cada movimiento");
                 }
-                break;
+                game.reset();
             }
+            movesApplied = replayChecked(game, steps);
         }
 
         game.setMoveCount(movesApplied);
@@ -84,6 +81,49 @@ public class GameReconstructor {
         return game;
     }
 
+    /**
+     * Plays the steps without legality checks, from the store's last usable snapshot,
+     * and compares the final position with {@code positionKey}, the key stored with
+     * them; one key comparison instead of a legal move generation per move.
+     *
+     * @return true when the position matches
+     */
+    private static boolean replayTrusted(Game game, List<Step> steps, long positionKey) {
+        game.replayTrusted(steps);
+        if (game.getPositionKey() != positionKey) {
+            return false;
+        }
+        game.refreshGameState();
+        return true;
+    }
+
+    /**
+     * Plays the steps through {@link Game#applyMove}, stopping at the first that cannot
+     * be played.
+     *
+     * @return number of steps applied
+     */
+    private static int replayChecked(Game game, List<Step> steps) {
+        int movesApplied = 0;
+
+        for (Step step : steps) {
+            Move move = step.getMove();
+
+            Board board = game.getBoard();
+
+            if (board.getPieceAt(move.getFrom()) != null) {
+                game.applyMove(move);
+                movesApplied++;
+            } else {
+                if (DEBUG) {
+                    System.err.println("Error: No se encontró pieza en " + move.getFrom());
+                }
+                break;
+            }
+        }
+        return movesApplied;
+    }
+
     /**
      * Obtiene información sobre el último juego guardado
      * 
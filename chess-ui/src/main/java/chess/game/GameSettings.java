@@ -14,18 +14,38 @@ public class GameSettings implements Serializable {
     public static final int MAX_DEPTH = 4;
     public static final int DEFAULT_DEPTH = 3;
 
+    /** Transposition table size per game, in megabytes. */
+    public static final int MIN_HASH_MB = 1;
+    public static final int MAX_HASH_MB = 1024;
+    public static final int DEFAULT_HASH_MB = 16;
+
+    /** Search threads per game; 0 stands for one per available processor. */
+    public static final int AUTO_THREADS = 0;
+    public static final int MAX_THREADS = 64;
+
     private final PieceColor humanColor;
     private final int aiDepth;
     private final int engineDepth;
     private final boolean playerVsPlayer;
     private final boolean aiVsAI;
+    /** 0 in settings saved before the field existed; read through {@link #getHashSizeMb()}. */
+    private final int hashSizeMb;
+    /** {@link #AUTO_THREADS} also in settings saved before the field existed. */
+    private final int searchThreads;
 
     private GameSettings(PieceColor humanColor, int aiDepth, boolean playerVsPlayer, boolean aiVsAI) {
+        this(humanColor, aiDepth, playerVsPlayer, aiVsAI, DEFAULT_HASH_MB, AUTO_THREADS);
+    }
+
+    private GameSettings(PieceColor humanColor, int aiDepth, boolean playerVsPlayer, boolean aiVsAI,
+            int hashSizeMb, int searchThreads) {
         this.humanColor = humanColor != null ? humanColor : PieceColor.WHITE;
         this.aiDepth = clampDepth(aiDepth);
         this.engineDepth = computeEngineDepth(this.aiDepth);
         this.playerVsPlayer = playerVsPlayer;
         this.aiVsAI = aiVsAI;
+        this.hashSizeMb = clampHashSize(hashSizeMb);
+        this.searchThreads = Math.max(AUTO_THREADS, Math.min(MAX_THREADS, searchThreads));
     }
 
     public static GameSettings humanVsAI(PieceColor color, int depth) {
@@ -55,6 +75,47 @@ public class GameSettings implements Serializable {
         return engineDepth;
     }
 
+    /**
+     * Memory cap for the AI transposition table of one game, in megabytes.
+     */
+    public int getHashSizeMb() {
+        return hashSizeMb > 0 ? hashSizeMb : DEFAULT_HASH_MB;
+    }
+
+    /**
+     * Copy of these settings with a different transposition table size.
+     */
+    public GameSettings withHashSizeMb(int sizeMb) {
+        return new GameSettings(humanColor, aiDepth, playerVsPlayer, aiVsAI, sizeMb, searchThreads);
+    }
+
+    /**
+     * Number of threads the AI of one game searches with; more than one selects
+     * {@link AIPlayer.Engine#LAZY_SMP}.
+     */
+    public int getSearchThreads() {
+        if (searchThreads > AUTO_THREADS) {
+            return searchThreads;
+        }
+        return Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Copy of these settings with a different thread count ({@link #AUTO_THREADS} for
+     * one per processor).
+     */
+    public GameSettings withSearchThreads(int threads) {
+        return new GameSettings(humanColor, aiDepth, playerVsPlayer, aiVsAI, hashSizeMb, threads);
+    }
+
+    /**
+     * Copy of these settings with the engine options (hash size, threads) of {@code other}.
+     */
+    public GameSettings withEngineOptionsOf(GameSettings other) {
+        return new GameSettings(humanColor, aiDepth, playerVsPlayer, aiVsAI, other.getHashSizeMb(),
+                other.searchThreads);
+    }
+
     public boolean isPlayerVsPlayer() {
         return playerVsPlayer;
     }
@@ -92,6 +153,10 @@ public class GameSettings implements Serializable {
         return depth;
     }
 
+    private static int clampHashSize(int sizeMb) {
+        return Math.max(MIN_HASH_MB, Math.min(MAX_HASH_MB, sizeMb));
+    }
+
     private int computeEngineDepth(int depth) {
         
         return depth;
@@ -0,0 +1,91 @@
+package chess.game;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReference;
+
+import chess.util.PersistenceWriter;
+
+/**
+ * Persists {@link GameSettings} so the app can restore the last played mode and preferences.
+ *
+ * <p>
+ * Saves are written behind by the {@link PersistenceWriter}; only the latest settings
+ * of a burst reach the file, and {@link #load()} sees them even before they do.
+ */
+public final class GameSettingsStore {
+    private static final String SETTINGS_FILE = "game_settings.dat";
+
+    /** Settings saved but not yet written. */
+    private static final AtomicReference<GameSettings> PENDING = new AtomicReference<>();
+
+    private static final PersistenceWriter.Target TARGET = new PersistenceWriter.Target() {
+        @Override
+        public void writePending() throws IOException {
+            GameSettings settings = PENDING.get();
+            if (settings == null) {
+                return;
+            }
+            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SETTINGS_FILE))) {
+                oos.writeObject(settings);
+            }
+            PENDING.compareAndSet(settings, null);
+        }
+
+        @Override
+        public void sync() throws IOException {
+            try (FileChannel channel = FileChannel.open(Paths.get(SETTINGS_FILE), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    };
+
+    private GameSettingsStore() {
+    }
+
+    public static void save(GameSettings settings) {
+        if (settings == null) {
+            return;
+        }
+
+        PENDING.set(settings);
+        PersistenceWriter.getInstance().submit(TARGET);
+    }
+
+    public static GameSettings loadOrDefault() {
+        GameSettings loaded = load();
+        if (loaded != null) {
+            return loaded;
+        }
+        return GameSettings.humanVsAI(chess.model.PieceColor.WHITE, GameSettings.DEFAULT_DEPTH);
+    }
+
+    public static GameSettings load() {
+        GameSettings pending = PENDING.get();
+        if (pending != null) {
+            return pending;
+        }
+
+        File file = new File(SETTINGS_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SETTINGS_FILE))) {
+            Object obj = ois.readObject();
+            if (obj instanceof GameSettings) {
+                return (GameSettings) obj;
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error loading game settings: " + e.getMessage());
+        }
+        return null;
+    }
+}
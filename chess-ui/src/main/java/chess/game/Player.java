@@ -0,0 +1,35 @@
+package chess.game;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import chess.model.Board;
+import chess.model.GameClock;
+import chess.model.Move;
+
+public abstract class Player {
+    public abstract Move chooseMove(Board board);
+
+    /**
+     * Chooses a move knowing the game clock, so the player can budget its thinking
+     * time. By default the clock is ignored.
+     */
+    public Move chooseMove(Board board, GameClock clock) {
+        return chooseMove(board);
+    }
+
+    /**
+     * Like {@link #chooseMove(Board, GameClock)}, returning as soon as it can once
+     * {@code stop} is set, even when it was set before the search started. By default
+     * the signal is ignored.
+     */
+    public Move chooseMove(Board board, GameClock clock, AtomicBoolean stop) {
+        return chooseMove(board, clock);
+    }
+
+    /**
+     * Asks a {@link #chooseMove} running on another thread to return as soon as it
+     * can. Players that answer at once ignore it.
+     */
+    public void stop() {
+    }
+}
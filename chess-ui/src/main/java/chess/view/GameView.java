@@ -1,5 +1,6 @@
 package chess.view;
 
+import chess.ai.TranspositionTable;
 import chess.controller.GameController;
 import chess.game.AIMatch;
 import chess.game.AIPlayer;
@@ -8,6 +9,7 @@ import chess.game.GameReconstructor;
 import chess.game.GameSettings;
 import chess.game.HumanPlayer;
 import chess.model.PieceColor;
+import chess.rules.RulesEngine;
 import chess.view.components.StatusBar;
 import chess.view.components.TimerBar;
 import javafx.geometry.Insets;
@@ -50,6 +52,10 @@ public class GameView {
     private AIMatch aiMatch;
     private PieceColor humanPlayerColor = PieceColor.WHITE;
     private int aiSearchDepth = 3;
+    private int hashSizeMb = GameSettings.DEFAULT_HASH_MB;
+    private int searchThreads = 1;
+    /** Shared by every AI player of this view's game; allocated on first use. */
+    private TranspositionTable transpositionTable;
 
     // Banderas de modo para indicar cuál modo de juego se está ejecutando
     private boolean isPlayerVsPlayerMode;
@@ -83,7 +89,9 @@ public class GameView {
                 settings != null && settings.isPlayerVsPlayer(),
                 settings != null && settings.isAIVsAI(),
                 resolveHumanColor(settings),
-                resolveDepth(settings));
+                resolveDepth(settings),
+                settings != null ? settings.getHashSizeMb() : GameSettings.DEFAULT_HASH_MB,
+                settings != null ? settings.getSearchThreads() : 1);
     }
 
     public GameView(boolean loadFromHistory) {
@@ -91,11 +99,13 @@ public class GameView {
     }
 
     public GameView(boolean loadFromHistory, boolean isPlayerVsPlayer) {
-        this(loadFromHistory, isPlayerVsPlayer, false, PieceColor.WHITE, GameSettings.DEFAULT_DEPTH);
+        this(loadFromHistory, isPlayerVsPlayer, false, PieceColor.WHITE, GameSettings.DEFAULT_DEPTH,
+                GameSettings.DEFAULT_HASH_MB, 1);
     }
 
     public GameView(boolean loadFromHistory, boolean isPlayerVsPlayer, boolean isAIVsAI) {
-        this(loadFromHistory, isPlayerVsPlayer, isAIVsAI, PieceColor.WHITE, GameSettings.DEFAULT_DEPTH);
+        this(loadFromHistory, isPlayerVsPlayer, isAIVsAI, PieceColor.WHITE, GameSettings.DEFAULT_DEPTH,
+                GameSettings.DEFAULT_HASH_MB, 1);
     }
 
     private static PieceColor resolveHumanColor(GameSettings settings) {
@@ -113,8 +123,10 @@ public class GameView {
     }
 
     private GameView(boolean loadFromHistory, boolean isPlayerVsPlayer, boolean isAIVsAI,
-            PieceColor humanColor, int aiDepth) {
+            PieceColor humanColor, int aiDepth, int hashSizeMb, int searchThreads) {
         this.shouldLoadHistory = loadFromHistory;
+        this.hashSizeMb = hashSizeMb;
+        this.searchThreads = searchThreads;
         this.humanPlayerColor = humanColor != null ? humanColor : PieceColor.WHITE;
         this.aiSearchDepth = Math.max(GameSettings.MIN_DEPTH, Math.min(GameSettings.MAX_DEPTH, aiDepth));
         this.isPlayerVsPlayerMode = isPlayerVsPlayer;
@@ -158,13 +170,20 @@ public class GameView {
      * Helper that maps the two existing mode flags to a numeric game mode.
      */
     public static int getGameModeNumber(boolean isPlayerVsPlayer, boolean isAIVsAI) {
-        if (isAIVsAI) {
-            return 3;
-        }
-        if (isPlayerVsPlayer) {
-            return 1;
+        return RulesEngine.getGameModeNumber(isPlayerVsPlayer, isAIVsAI);
+    }
+
+    /**
+     * AI player whose transposition table is shared with the other AI of this game, so
+     * the game never holds more than the configured hash size. With more than one
+     * search thread configured it searches with Lazy SMP.
+     */
+    private AIPlayer createAIPlayer(PieceColor color, int depth) {
+        if (transpositionTable == null) {
+            transpositionTable = new TranspositionTable(hashSizeMb);
         }
-        return 2;
+        AIPlayer.Engine engine = searchThreads > 1 ? AIPlayer.Engine.LAZY_SMP : AIPlayer.Engine.ALPHA_BETA;
+        return new AIPlayer(color, depth, engine, transpositionTable, searchThreads);
     }
 
     private void initializeComponents(boolean loadFromHistory, boolean isPlayerVsPlayer, boolean isAIVsAI,
@@ -188,8 +207,8 @@ public class GameView {
                 // Partida guardada era AIvAI
                 game = chess.game.GameReconstructor.reconstructGameFromHistory(
                         StartScreen.getHistoryFilePath(),
-                        new AIPlayer(PieceColor.WHITE, 3),
-                        new AIPlayer(PieceColor.BLACK, 3));
+                        createAIPlayer(PieceColor.WHITE, 3),
+                        createAIPlayer(PieceColor.BLACK, 3));
                 isPlayerVsPlayer = false;
                 isAIVsAI = true;
                 shouldStartAIMatch = true;
@@ -198,15 +217,15 @@ public class GameView {
                 game = chess.game.GameReconstructor.reconstructGameFromHistory(
                         StartScreen.getHistoryFilePath(),
                         new HumanPlayer(),
-                        new AIPlayer(PieceColor.BLACK, 3));
+                        createAIPlayer(PieceColor.BLACK, 3));
                 isPlayerVsPlayer = false;
                 isAIVsAI = false;
             }
             if (isAIVsAI) {
                 game = GameReconstructor.reconstructGameFromHistory(
                         StartScreen.getHistoryFilePath(),
-                        new AIPlayer(PieceColor.WHITE, depth),
-                        new AIPlayer(PieceColor.BLACK, depth));
+                        createAIPlayer(PieceColor.WHITE, depth),
+                        createAIPlayer(PieceColor.BLACK, depth));
             } else if (isPlayerVsPlayer) {
                 game = GameReconstructor.reconstructGameFromHistory(
                         StartScreen.getHistoryFilePath(),
@@ -217,11 +236,11 @@ public class GameView {
                     game = GameReconstructor.reconstructGameFromHistory(
                             StartScreen.getHistoryFilePath(),
                             new HumanPlayer(),
-                            new AIPlayer(PieceColor.BLACK, depth));
+                            createAIPlayer(PieceColor.BLACK, depth));
                 } else {
                     game = GameReconstructor.reconstructGameFromHistory(
                             StartScreen.getHistoryFilePath(),
-                            new AIPlayer(PieceColor.WHITE, depth),
+                            createAIPlayer(PieceColor.WHITE, depth),
                             new HumanPlayer());
                 }
             }
@@ -229,7 +248,7 @@ public class GameView {
 
             if (isAIVsAI) {
 
-                game = new Game(new AIPlayer(PieceColor.WHITE, depth), new AIPlayer(PieceColor.BLACK, depth));
+                game = new Game(createAIPlayer(PieceColor.WHITE, depth), createAIPlayer(PieceColor.BLACK, depth));
                 game.setGameMode(chess.history.GameMetadata.GameMode.AIVAI);
                 shouldStartAIMatch = true;
             } else if (isPlayerVsPlayer) {
@@ -238,9 +257,9 @@ public class GameView {
                 game.setGameMode(chess.history.GameMetadata.GameMode.PVP);
             } else {
                 if (humanColor == PieceColor.WHITE) {
-                    game = new Game(new HumanPlayer(), new AIPlayer(PieceColor.BLACK, depth));
+                    game = new Game(new HumanPlayer(), createAIPlayer(PieceColor.BLACK, depth));
                 } else {
-                    game = new Game(new AIPlayer(PieceColor.WHITE, depth), new HumanPlayer());
+                    game = new Game(createAIPlayer(PieceColor.WHITE, depth), new HumanPlayer());
                 }
                 game.setGameMode(chess.history.GameMetadata.GameMode.PVAI);
             }
@@ -681,12 +700,8 @@ public class GameView {
             new Thread(() -> {
                 try {
                     Thread.sleep(1000); // Small delay to let UI settle
-                    javafx.application.Platform.runLater(() -> {
-                        chess.model.Move aiMove = gameInstance.getAIMoveIfAny();
-                        if (aiMove != null) {
-                            controller.executeMoveWithAnimation(aiMove);
-                        }
-                    });
+                    // The controller searches on the engine service, off the JavaFX thread
+                    javafx.application.Platform.runLater(controller::triggerAIMoveIfNeeded);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
@@ -719,7 +734,8 @@ public class GameView {
             controller.executeMoveWithAnimation(move);
         });
 
-        new Thread(() -> aiMatch.startMatch()).start();
+        // Only submits the first search, so it may start from the JavaFX thread
+        aiMatch.startMatch();
     }
 
     /**
@@ -749,6 +765,11 @@ public class GameView {
             
             // Detiene el duelo IA vs IA si está en ejecución
             stopAIVsAIMatch();
+
+            // Cancela las búsquedas en curso y libera los hilos de la IA
+            if (controller != null) {
+                controller.dispose();
+            }
             
             // Guarda el estado actual del juego
             if (gameInstance.getStepHistory() != null && gameInstance.getStepHistoryStore() != null) {
@@ -759,7 +780,9 @@ public class GameView {
                     long blackTime = gameInstance.getGameClock().getBlackTimeRemainingMillis();
                     gameInstance.getStepHistoryStore().setGameMetadata(new chess.history.GameMetadata(mode, whiteTime, blackTime));
                 }
-                gameInstance.getStepHistoryStore().saveApplied(gameInstance.getStepHistory());
+                gameInstance.getStepHistoryStore().saveApplied(gameInstance.getStepHistory(),
+                        gameInstance.getPositionKey());
+                gameInstance.getStepHistoryStore().close();
             }
         }
         
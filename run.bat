@@ -15,8 +15,11 @@ set CLASSPATH=%JAVAFX_CONTROLS%;%JAVAFX_BASE%;%JAVAFX_GRAPHICS%;%JAVAFX_FXML%
 
 REM Compilar el proyecto
 echo Compilando el proyecto...
-for /r "src\main\java" %%f in (*.java) do (
-    javac -cp "%CLASSPATH%;target\classes" -d target\classes "%%f"
+set SOURCES=chess-core\src\main\java;chess-engine\src\main\java;chess-ui\src\main\java
+for %%m in (chess-core chess-engine chess-ui) do (
+    for /r "%%m\src\main\java" %%f in (*.java) do (
+        javac -cp "%CLASSPATH%;target\classes" -sourcepath "%SOURCES%" -d target\classes "%%f"
+    )
 )
 
 if %ERRORLEVEL% neq 0 (
@@ -26,7 +29,7 @@ if %ERRORLEVEL% neq 0 (
 )
 
 REM Copiar recursos
-if exist "src\main\resources" xcopy "src\main\resources" "target\classes" /E /I /Y
+if exist "chess-ui\src\main\resources" xcopy "chess-ui\src\main\resources" "target\classes" /E /I /Y
 
 REM Ejecutar la aplicacion con JavaFX
 echo Ejecutando la aplicacion...
@@ -1,8 +0,0 @@
-package chess.game;
-
-import chess.model.Board;
-import chess.model.Move;
-
-public abstract class Player {
-    public abstract Move chooseMove(Board board);
-}